@@ -16,9 +16,12 @@ import android.view.WindowManager;
 public final class Splash extends Activity
 {
     /**
-     * Time delay to show the splash screen
+     * Time delay between checking if the assets are ready
      */
-    private static final long TIME_DELAY = 1500L;
+    private static final long TIME_DELAY = 50L;
+    
+    //used to check if the assets are ready
+    private Handler handler;
     
     /**
      * Called when the activity is first created
@@ -44,7 +47,7 @@ public final class Splash extends Activity
         
         try
         {
-            //load the game assets
+            //start loading the game assets in the background
             Assets.load(this);
         }
         catch (Exception e)
@@ -75,22 +78,33 @@ public final class Splash extends Activity
         //call parent functionality
         super.onStart();
         
-        //add a delay to show the splash image before starting main activity
-        new Handler().postDelayed(new Runnable() {
+        //create our handler if it does not exist
+        if (this.handler == null)
+        	this.handler = new Handler();
+        
+        //check if the assets are ready
+        this.handler.post(new Runnable() {
  
             /**
-             * Run will be executed once the time delay is over
+             * Run will start the main activity once the assets for the menu are ready
              */
             @Override
             public void run() {
                 
+            	//if not ready, check again after the time delay, the remaining assets will continue loading
+            	if (!Assets.isReady(Assets.GROUPS_MENU))
+            	{
+            		handler.postDelayed(this, TIME_DELAY);
+            		return;
+            	}
+            	
                 //start our main activity
                 startActivity(new Intent(Splash.this, MainActivity.class));
  
                 //close this activity
                 finish();
             }
-        }, TIME_DELAY);
+        });
     }
     
     /**
@@ -100,6 +114,10 @@ public final class Splash extends Activity
     public void onStop()
     {
         super.onStop();
+        
+        //stop checking if the assets are ready
+        if (this.handler != null)
+        	this.handler.removeCallbacksAndMessages(null);
     }
     
     /**
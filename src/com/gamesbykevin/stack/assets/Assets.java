@@ -1,11 +1,31 @@
 package com.gamesbykevin.stack.assets;
 
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import com.gamesbykevin.androidframework.resources.Audio;
 import com.gamesbykevin.androidframework.resources.Files;
 import com.gamesbykevin.androidframework.resources.Font;
 import com.gamesbykevin.androidframework.resources.Images;
+import com.gamesbykevin.stack.number.Glyphs;
+import com.gamesbykevin.stack.panel.GamePanel;
+import com.gamesbykevin.stack.thread.MainThread;
 
 import android.app.Activity;
+import android.content.Context;
+import android.content.res.AssetManager;
+import android.graphics.Bitmap;
+import android.graphics.Bitmap.Config;
+import android.graphics.BitmapFactory;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.util.DisplayMetrics;
 
 /**
  * This class will contain all of our assets
@@ -48,6 +68,114 @@ public class Assets
      */
     private static final String DIRECTORY_TEXT = "text";
     
+    /**
+     * The groups of assets that are loaded separately
+     */
+    public enum Group
+    {
+    	ImageMenu, 
+    	ImageGame, 
+    	AudioMenu, 
+    	AudioGame
+    }
+    
+    /**
+     * The groups of assets needed before we can display the menu
+     */
+    public static final Group[] GROUPS_MENU = {Group.ImageMenu, Group.AudioMenu, Group.AudioGame};
+    
+    /**
+     * The groups of assets needed before we can start the game
+     */
+    public static final Group[] GROUPS_GAME = {Group.ImageGame, Group.AudioGame};
+    
+    /**
+     * The small menu images we combine into our atlas, the full screen images are kept on their own
+     */
+    private static final ImageMenuKey[] ATLAS_KEYS = {
+    	ImageMenuKey.Button, 
+    	ImageMenuKey.Cancel, 
+    	ImageMenuKey.Confirm, 
+    	ImageMenuKey.Facebook, 
+    	ImageMenuKey.Gameover, 
+    	ImageMenuKey.Instructions, 
+    	ImageMenuKey.Logo, 
+    	ImageMenuKey.NewRecord, 
+    	ImageMenuKey.Twitter, 
+    	ImageMenuKey.Youtube
+    };
+    
+    /**
+     * The opaque full screen images.<br>
+     * These are decoded at the size of our surface without transparency, and are rendered with renderFullscreen()
+     */
+    private static final ImageMenuKey[] FULLSCREEN_KEYS = {
+    	ImageMenuKey.Background, 
+    	ImageMenuKey.Splash
+    };
+    
+    /**
+     * Where the full screen images are rendered on our canvas
+     */
+    private static final Rect FULLSCREEN = new Rect(0, 0, GamePanel.WIDTH, GamePanel.HEIGHT);
+    
+    /**
+     * The number of threads used to decode our images
+     */
+    private static final int THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
+    
+    /**
+     * The default number of bytes our decoded images can use
+     */
+    public static final long DEFAULT_BUDGET = Runtime.getRuntime().maxMemory() / 8;
+    
+    //our decoded images, these can be read while other images are still loading
+    private static final ImageCache IMAGES = new ImageCache(DEFAULT_BUDGET);
+    
+    //the location of each image that has been loaded, so it can be loaded again if removed from our cache
+    private static final ConcurrentHashMap<Object, String> PATHS = new ConcurrentHashMap<Object, String>();
+    
+    //the images removed from our cache that are being loaded again, so each is only loaded once
+    private static final ConcurrentHashMap<Object, Boolean> RELOADING = new ConcurrentHashMap<Object, Boolean>();
+    
+    //object used to open the assets
+    private static volatile AssetManager MANAGER;
+    
+    //the images we have already decoded on a previous launch, null if there is no cache
+    private static volatile PixelCache CACHE;
+    
+    //the size of the surface we render to in pixels
+    private static volatile int SURFACE_WIDTH = GamePanel.WIDTH, SURFACE_HEIGHT = GamePanel.HEIGHT;
+    
+    //do we know the size of our surface, or is it a guess
+    private static volatile boolean SURFACE_KNOWN = false;
+    
+    //the number of assets remaining to load in each group
+    private static final AtomicInteger[] REMAINING = new AtomicInteger[Group.values().length];
+    
+    //the number of assets loaded so far
+    private static final AtomicInteger LOADED = new AtomicInteger();
+    
+    //the total number of assets we are loading
+    private static volatile int TOTAL = 0;
+    
+    //the threads loading our assets, null if we have not started
+    private static volatile ExecutorService EXECUTOR;
+    
+    //incremented each time we recycle, so tasks from a previous load know their results are no longer wanted
+    private static volatile int GENERATION = 0;
+    
+    //the small menu images packed together, null if not created
+    private static volatile Atlas ATLAS;
+    
+    static
+    {
+    	for (int i = 0; i < REMAINING.length; i++)
+    	{
+    		REMAINING[i] = new AtomicInteger();
+    	}
+    }
+    
     /**
      * The different fonts used in our game.<br>
      * Order these according to the file name in the "font" assets folder.
@@ -141,42 +269,786 @@ public class Assets
     }
     
     /**
-     * Load all assets.<br>
-     * If an asset already exists, it won't be loaded again
+     * Start loading all assets.<br>
+     * The images are decoded at the same time on a pool of threads, the audio is loaded one at a time on a single thread.<br>
+     * This returns right away, use isReady() to check when a group of assets can be used.<br>
+     * If the assets are already loading or loaded, they won't be loaded again
      * @param activity Object containing AssetManager needed to load assets
      * @throws Exception 
      */
-    public static final void load(final Activity activity) throws Exception
-    {
-        //load all images for the menu
-        Images.load(activity, ImageMenuKey.values(), DIRECTORY_MENU_IMAGE, true);
-        
-        //load all fonts for the menu
-        Font.load(activity, FontMenuKey.values(), DIRECTORY_MENU_FONT, true);
-        
-        //load all audio for the menu
-        Audio.load(activity, AudioMenuKey.values(), DIRECTORY_MENU_AUDIO, true);
-        
-        //load images for the game
-        Images.load(activity, ImageGameKey.values(), DIRECTORY_GAME_IMAGE, true);
-        
-        //load all audio for the game
-        Audio.load(activity, AudioGameKey.values(), DIRECTORY_GAME_AUDIO, true);
-        
-        //load all fonts for the game
-        Font.load(activity, FontGameKey.values(), DIRECTORY_GAME_FONT, true);
-        
-        //load all text files
-        Files.load(activity, TextKey.values(), DIRECTORY_TEXT, true);
+    public static final synchronized void load(final Activity activity) throws Exception
+    {
+    	//if we already started, don't continue
+    	if (EXECUTOR != null)
+    		return;
+    	
+    	//the application assets will outlive the activity
+    	MANAGER = activity.getApplicationContext().getAssets();
+    	
+    	//the full screen images will be decoded at the size of our surface, until it exists guess the size
+    	if (!SURFACE_KNOWN)
+    	{
+	    	if (GamePanel.DEFAULT_SCALE_MODE == GamePanel.ScaleMode.Hardware)
+	    	{
+	    		//the display hardware scales our game, so we render at the size of our game
+	    		SURFACE_WIDTH = GamePanel.WIDTH;
+	    		SURFACE_HEIGHT = GamePanel.HEIGHT;
+	    	}
+	    	else
+	    	{
+		    	final DisplayMetrics metrics = activity.getResources().getDisplayMetrics();
+		    	SURFACE_WIDTH = metrics.widthPixels;
+		    	SURFACE_HEIGHT = metrics.heightPixels;
+	    	}
+    	}
+    	
+    	//count the assets we are going to load
+    	TOTAL = ImageMenuKey.values().length + ImageGameKey.values().length + AudioMenuKey.values().length + AudioGameKey.values().length;
+    	LOADED.set(0);
+    	
+    	//the menu images aren't ready until we also create the atlas
+    	REMAINING[Group.ImageMenu.ordinal()].set(ImageMenuKey.values().length + 1);
+    	REMAINING[Group.ImageGame.ordinal()].set(ImageGameKey.values().length);
+    	REMAINING[Group.AudioMenu.ordinal()].set(AudioMenuKey.values().length);
+    	REMAINING[Group.AudioGame.ordinal()].set(AudioGameKey.values().length);
+    	
+    	//until a screen assigns its scope, keep the full screen images the first screens show while we load
+    	setScope((Object[])FULLSCREEN_KEYS);
+    	
+    	//create the threads to load our assets
+    	EXECUTOR = Executors.newFixedThreadPool(THREADS);
+    	
+    	//the tasks of this load
+    	final int generation = GENERATION;
+    	
+    	//the audio isn't safe to load at the same time, so load it all in a single task
+    	EXECUTOR.execute(new Runnable()
+    	{
+			@Override
+			public void run()
+			{
+				try
+				{
+			        //load all audio for the menu
+			        Audio.load(activity, AudioMenuKey.values(), DIRECTORY_MENU_AUDIO, true);
+				}
+				catch (Exception e)
+				{
+					e.printStackTrace();
+				}
+				finally
+				{
+					//count the audio, even if it failed, so we don't wait forever
+			        loaded(generation, Group.AudioMenu, AudioMenuKey.values().length);
+				}
+				
+				//if our assets were recycled, don't load anything more
+				if (generation != GENERATION)
+					return;
+				
+				try
+				{
+			        //load all audio for the game
+			        Audio.load(activity, AudioGameKey.values(), DIRECTORY_GAME_AUDIO, true);
+				}
+				catch (Exception e)
+				{
+					e.printStackTrace();
+				}
+				finally
+				{
+					//count the audio, even if it failed, so we don't wait forever
+			        loaded(generation, Group.AudioGame, AudioGameKey.values().length);
+				}
+				
+				//if our assets were recycled, don't load anything more
+				if (generation != GENERATION)
+					return;
+				
+				try
+				{
+			        //load all fonts
+			        Font.load(activity, FontMenuKey.values(), DIRECTORY_MENU_FONT, true);
+			        Font.load(activity, FontGameKey.values(), DIRECTORY_GAME_FONT, true);
+			        
+			        //load all text files
+			        Files.load(activity, TextKey.values(), DIRECTORY_TEXT, true);
+				}
+				catch (Exception e)
+				{
+					e.printStackTrace();
+				}
+			}
+    	});
+    	
+    	//the images can't be decoded until our cache is ready, which needs the disk so it is done off the UI thread
+    	final ExecutorService executor = EXECUTOR;
+    	final Context context = activity.getApplicationContext();
+    	
+    	EXECUTOR.execute(new Runnable()
+    	{
+			@Override
+			public void run()
+			{
+				try
+				{
+					CACHE = new PixelCache(context);
+				}
+				catch (Exception e)
+				{
+					//we can still decode the images without the cache
+					e.printStackTrace();
+				}
+				
+				try
+				{
+			    	//the menu images are needed first, then the game images
+			    	loadImages(executor, generation, Group.ImageMenu, ImageMenuKey.values(), DIRECTORY_MENU_IMAGE);
+			    	loadImages(executor, generation, Group.ImageGame, ImageGameKey.values(), DIRECTORY_GAME_IMAGE);
+				}
+				catch (Exception e)
+				{
+					e.printStackTrace();
+				}
+			}
+    	});
+    }
+    
+    /**
+     * Decode each image in its own task.<br>
+     * The keys are mapped to the file names in the directory, in sorted order
+     * @param executor The threads of the load these tasks belong to
+     * @param generation The generation of the load these tasks belong to
+     * @param group The group the images belong to
+     * @param keys The keys of the images
+     * @param directory The directory containing the images
+     * @throws Exception If the number of files does not match the number of keys, or our assets were recycled
+     */
+    private static void loadImages(final ExecutorService executor, final int generation, final Group group, final Object[] keys, final String directory) throws Exception
+    {
+    	//get the files in sorted order, so they line up with our keys
+    	final String[] files = MANAGER.list(directory);
+    	Arrays.sort(files);
+    	
+    	if (files.length != keys.length)
+    		throw new Exception("The number of files (" + files.length + ") does not match the number of keys (" + keys.length + ") in " + directory);
+    	
+    	for (int i = 0; i < keys.length; i++)
+    	{
+    		final Object key = keys[i];
+    		final String path = directory + "/" + files[i];
+    		
+    		executor.execute(new Runnable()
+    		{
+				@Override
+				public void run()
+				{
+					try
+					{
+						//if the image is already loaded, we don't need to load it again
+						if (!IMAGES.contains(key))
+						{
+							final Bitmap image = decode(key, path);
+							
+							if (cache(generation, key, image))
+							{
+								//remember where the image is, in case it is removed from our cache
+								PATHS.put(key, path);
+								
+								//the digits are scaled once for every number, as soon as they are loaded
+								if (key == ImageGameKey.Numbers)
+									Glyphs.create(image, getSurfaceScaleX(), getSurfaceScaleY());
+							}
+						}
+					}
+					catch (Exception e)
+					{
+						e.printStackTrace();
+					}
+					finally
+					{
+						//count the image, even if it failed, so we don't wait forever
+						loaded(generation, group, 1);
+					}
+				}
+    		});
+    	}
+    }
+    
+    /**
+     * Add the decoded image to our cache.<br>
+     * If our assets were recycled while decoding, nobody wants the image so it is recycled instead
+     * @param generation The generation of the load that decoded the image
+     * @param key The key of the image
+     * @param image The decoded image, may be null
+     * @return true if the image was added to our cache, false otherwise
+     */
+    private static boolean cache(final int generation, final Object key, final Bitmap image)
+    {
+    	if (image == null)
+    		return false;
+    	
+    	//recycle() can't run between our check and adding the image
+    	synchronized (Assets.class)
+    	{
+	    	if (generation == GENERATION)
+	    	{
+		    	IMAGES.put(key, image);
+		    	return true;
+	    	}
+    	}
+    	
+    	image.recycle();
+    	return false;
+    }
+    
+    /**
+     * Load the image again in the background, if it isn't already being loaded
+     * @param key The key of the image
+     * @param path The location of the image in our assets
+     */
+    private static void reload(final Object key, final String path)
+    {
+    	final ExecutorService executor = EXECUTOR;
+    	
+    	//we can't load if our assets were recycled, or the image is already being loaded
+    	if (executor == null || RELOADING.putIfAbsent(key, Boolean.TRUE) != null)
+    		return;
+    	
+    	final int generation = GENERATION;
+    	
+    	try
+    	{
+	    	executor.execute(new Runnable()
+	    	{
+				@Override
+				public void run()
+				{
+					try
+					{
+						cache(generation, key, decode(key, path));
+					}
+					catch (Exception e)
+					{
+						e.printStackTrace();
+					}
+					finally
+					{
+						RELOADING.remove(key);
+					}
+				}
+	    	});
+    	}
+    	catch (RejectedExecutionException e)
+    	{
+    		//our assets are being recycled
+    		RELOADING.remove(key);
+    	}
+    }
+    
+    /**
+     * Decode the image
+     * @param key The key of the image
+     * @param path The location of the image in our assets
+     * @return The decoded image, or null if the image could not be decoded
+     * @throws Exception
+     */
+    private static Bitmap decode(final Object key, final String path) throws Exception
+    {
+    	final PixelCache cache = CACHE;
+    	
+    	//the full screen images are cached separately for each size
+    	if (isFullscreen(key))
+    	{
+    		final int width = SURFACE_WIDTH;
+    		final int height = SURFACE_HEIGHT;
+    		
+    		//check if we decoded the image at this size on a previous launch
+    		Bitmap image = (cache != null) ? cache.read(key, width, height) : null;
+    		
+    		if (image == null)
+    		{
+    			image = decodeFullscreen(path, width, height);
+    			
+    			//store the pixels for the next launch
+    			if (cache != null && image != null)
+    				cache.write(key, width, height, image);
+    		}
+    		
+    		return image;
+    	}
+    	
+		//check if we decoded the image on a previous launch
+		Bitmap image = (cache != null) ? cache.read(key) : null;
+		
+		if (image == null)
+		{
+			image = decode(path, null);
+			
+			//store the pixels for the next launch
+			if (cache != null && image != null)
+				cache.write(key, image);
+		}
+		
+		return image;
+    }
+    
+    /**
+     * Decode the image
+     * @param path The location of the image in our assets
+     * @param options The options used to decode, may be null
+     * @return The decoded image, or null if only the bounds were decoded or the image could not be decoded
+     * @throws Exception
+     */
+    private static Bitmap decode(final String path, final BitmapFactory.Options options) throws Exception
+    {
+		final InputStream stream = MANAGER.open(path);
+		
+		try
+		{
+			return BitmapFactory.decodeStream(stream, null, options);
+		}
+		finally
+		{
+			stream.close();
+		}
+    }
+    
+    /**
+     * Decode the opaque full screen image at the exact size of our surface.<br>
+     * The image is sampled down as far as possible while decoding, then resized to fit our surface
+     * @param path The location of the image in our assets
+     * @param width The width of our surface in pixels
+     * @param height The height of our surface in pixels
+     * @return The decoded image without transparency, or null if the image could not be decoded
+     * @throws Exception
+     */
+    private static Bitmap decodeFullscreen(final String path, final int width, final int height) throws Exception
+    {
+    	//first only read the size of the image
+    	final BitmapFactory.Options options = new BitmapFactory.Options();
+    	options.inJustDecodeBounds = true;
+    	decode(path, options);
+    	
+    	//sample down while the image is still at least the size of the device
+    	options.inSampleSize = 1;
+    	
+    	while (options.outWidth / (options.inSampleSize * 2) >= width && options.outHeight / (options.inSampleSize * 2) >= height)
+    	{
+    		options.inSampleSize *= 2;
+    	}
+    	
+    	//the image is opaque, so we don't need to store transparency
+    	options.inJustDecodeBounds = false;
+    	options.inScaled = false;
+    	options.inPreferredConfig = Config.RGB_565;
+    	
+    	Bitmap image = decode(path, options);
+    	
+    	//resize to the exact size of the device
+    	if (image != null && (image.getWidth() != width || image.getHeight() != height))
+    	{
+    		final Bitmap scaled = Bitmap.createScaledBitmap(image, width, height, true);
+    		
+    		if (scaled != image)
+    			image.recycle();
+    		
+    		image = scaled;
+    	}
+    	
+    	return image;
+    }
+    
+    /**
+     * Is this a full screen image?
+     * @param key The key of the image
+     * @return true if the image is decoded at the size of the device, false otherwise
+     */
+    private static boolean isFullscreen(final Object key)
+    {
+    	for (ImageMenuKey tmp : FULLSCREEN_KEYS)
+    	{
+    		if (tmp == key)
+    			return true;
+    	}
+    	
+    	return false;
+    }
+    
+    /**
+     * Count the assets that have finished loading
+     * @param generation The generation of the load the assets belong to
+     * @param group The group the assets belong to
+     * @param count The number of assets loaded
+     */
+    private static void loaded(final int generation, final Group group, final int count)
+    {
+    	final int remaining;
+    	
+    	//recycle() and the next load() can't run between our check and counting
+    	synchronized (Assets.class)
+    	{
+	    	//if our assets were recycled, these counts belong to a load that no longer exists
+	    	if (generation != GENERATION)
+	    		return;
+	    	
+	    	remaining = REMAINING[group.ordinal()].addAndGet(-count);
+	    	LOADED.addAndGet(count);
+    	}
+    	
+    	//once every menu image is decoded, pack the small images into our atlas
+    	if (group == Group.ImageMenu && remaining == 1)
+    	{
+    		createAtlas(generation);
+    		
+    		synchronized (Assets.class)
+    		{
+    			if (generation == GENERATION)
+    				REMAINING[group.ordinal()].decrementAndGet();
+    		}
+    	}
+    }
+    
+    /**
+     * Pack the small menu images into our atlas.<br>
+     * Once packed, the separate images are recycled.<br>
+     * If the atlas can't be created, the separate images are kept.<br>
+     * This is only called from our loading threads, so images removed from our cache are decoded again right away
+     * @param generation The generation of the load the images belong to
+     */
+    private static void createAtlas(final int generation)
+    {
+    	try
+    	{
+    		//get each image, loading it again if it was removed from our cache
+    		final Bitmap[] images = new Bitmap[ATLAS_KEYS.length];
+    		
+    		for (int i = 0; i < ATLAS_KEYS.length; i++)
+    		{
+    			images[i] = IMAGES.get(ATLAS_KEYS[i]);
+    			
+    			if (images[i] == null)
+    			{
+    				final String path = PATHS.get(ATLAS_KEYS[i]);
+    				
+    				if (path != null)
+    					images[i] = decode(ATLAS_KEYS[i], path);
+    				
+    				//without every image we keep the separate images
+    				if (images[i] == null)
+    					throw new Exception("Image not loaded: " + ATLAS_KEYS[i]);
+    				
+    				IMAGES.put(ATLAS_KEYS[i], images[i]);
+    			}
+    		}
+    		
+    		final Atlas atlas = new Atlas(ATLAS_KEYS, images);
+    		
+    		synchronized (Assets.class)
+    		{
+    			//if our assets were recycled, nobody wants the atlas
+    			if (generation != GENERATION)
+    			{
+    				atlas.dispose();
+    				return;
+    			}
+    			
+	    		ATLAS = atlas;
+	    		
+	    		//we no longer need the separate images
+	    		for (int i = 0; i < ATLAS_KEYS.length; i++)
+	    		{
+	    			PATHS.remove(ATLAS_KEYS[i]);
+	    			IMAGES.remove(ATLAS_KEYS[i]);
+	    			
+	    			//nothing has been able to draw these images yet
+	    			images[i].recycle();
+	    		}
+    		}
+    	}
+    	catch (Exception e)
+    	{
+    		e.printStackTrace();
+    	}
+    }
+    
+    /**
+     * Get the atlas
+     * @return The small menu images packed together, null if the atlas was not created
+     */
+    public static final Atlas getAtlas()
+    {
+    	return ATLAS;
+    }
+    
+    /**
+     * Render the image at its original size, from our atlas if it was packed
+     * @param canvas The canvas to which we render pixel data
+     * @param key The key of the image
+     * @param x The x-coordinate
+     * @param y The y-coordinate
+     * @param paint The paint object used to render, may be null
+     */
+    public static final void render(final Canvas canvas, final Object key, final int x, final int y, final Paint paint)
+    {
+    	final Atlas atlas = getAtlas();
+    	
+    	if (atlas != null && atlas.contains(key))
+    	{
+    		atlas.render(canvas, key, x, y, paint);
+    	}
+    	else
+    	{
+    		final Bitmap image = getImage(key);
+    		
+    		//the image may be loading again
+    		if (image != null)
+    			canvas.drawBitmap(image, x, y, paint);
+    	}
+    }
+    
+    /**
+     * Render the full screen image over the whole canvas.<br>
+     * The image was decoded at the size of our surface, so once our canvas is scaled to the surface each pixel is copied as is without filtering
+     * @param canvas The canvas to which we render pixel data
+     * @param key The key of the full screen image, e.g. Background or Splash
+     */
+    public static final void renderFullscreen(final Canvas canvas, final ImageMenuKey key)
+    {
+    	final Bitmap image = getImage(key);
+    	
+    	if (image != null)
+    	{
+    		//if our surface changed size, keep rendering this image until it is loaded again at the new size
+    		if (image.getWidth() != SURFACE_WIDTH || image.getHeight() != SURFACE_HEIGHT)
+    		{
+    			final String path = PATHS.get(key);
+    			
+    			if (path != null)
+    				reload(key, path);
+    		}
+    		
+    		canvas.drawBitmap(image, null, FULLSCREEN, null);
+    	}
+    }
+    
+    /**
+     * Assign the size of our surface, once it is known.<br>
+     * The full screen images are decoded at this size, any already loaded at a different size will be loaded again when rendered
+     * @param width The width of our surface in pixels
+     * @param height The height of our surface in pixels
+     */
+    public static final void setSurfaceSize(final int width, final int height)
+    {
+    	if (width < 1 || height < 1)
+    		return;
+    	
+    	SURFACE_WIDTH = width;
+    	SURFACE_HEIGHT = height;
+    	SURFACE_KNOWN = true;
+    	
+    	//the glyphs of our numbers need to match the new scale
+    	if (!Glyphs.exists(getSurfaceScaleX(), getSurfaceScaleY()))
+    		createGlyphs();
+    }
+    
+    /**
+     * Get the x scale of our surface
+     * @return The width of our surface compared to the width of our game
+     */
+    private static float getSurfaceScaleX()
+    {
+    	return SURFACE_WIDTH / (float)GamePanel.WIDTH;
+    }
+    
+    /**
+     * Get the y scale of our surface
+     * @return The height of our surface compared to the height of our game
+     */
+    private static float getSurfaceScaleY()
+    {
+    	return SURFACE_HEIGHT / (float)GamePanel.HEIGHT;
+    }
+    
+    /**
+     * Create the glyphs of our numbers again in the background, at the scale of our surface.<br>
+     * If the number image hasn't loaded yet, the glyphs are created once it has
+     */
+    private static void createGlyphs()
+    {
+    	final ExecutorService executor = EXECUTOR;
+    	
+    	//the number image hasn't started loading yet
+    	if (executor == null || PATHS.get(ImageGameKey.Numbers) == null)
+    		return;
+    	
+    	final int generation = GENERATION;
+    	
+    	try
+    	{
+	    	executor.execute(new Runnable()
+	    	{
+				@Override
+				public void run()
+				{
+					try
+					{
+						Bitmap image = IMAGES.get(ImageGameKey.Numbers);
+						
+						//the image may have been removed from our cache
+						if (image == null)
+						{
+							image = decode(ImageGameKey.Numbers, PATHS.get(ImageGameKey.Numbers));
+							
+							if (!cache(generation, ImageGameKey.Numbers, image))
+								return;
+						}
+						
+						//if our assets were recycled, nobody wants the glyphs
+						if (generation == GENERATION)
+							Glyphs.create(image, getSurfaceScaleX(), getSurfaceScaleY());
+					}
+					catch (Exception e)
+					{
+						e.printStackTrace();
+					}
+				}
+	    	});
+    	}
+    	catch (RejectedExecutionException e)
+    	{
+    		//our assets are being recycled
+    	}
+    }
+    
+    /**
+     * Are the groups of assets ready to be used?
+     * @param groups The groups of assets we want to use
+     * @return true if we started loading and every asset in the groups has finished loading, false otherwise
+     */
+    public static final boolean isReady(final Group... groups)
+    {
+    	//if we haven't started loading, nothing is ready
+    	if (EXECUTOR == null)
+    		return false;
+    	
+    	for (Group group : groups)
+    	{
+    		if (REMAINING[group.ordinal()].get() > 0)
+    			return false;
+    	}
+    	
+    	return true;
+    }
+    
+    /**
+     * Get the progress
+     * @return The progress of loading all assets ranging from 0.0 (nothing loaded) - 1.0 (everything loaded)
+     */
+    public static final float getProgress()
+    {
+    	return (TOTAL < 1) ? 0.0f : (float)LOADED.get() / TOTAL;
+    }
+    
+    /**
+     * Get the image.<br>
+     * If the image was removed from our cache it will be loaded again in the background, so we never decode while rendering.<br>
+     * The images packed in our atlas are not kept on their own, use getAtlas() or render() for those
+     * @param key The key of the image we want
+     * @return The decoded image, or null if the image has not finished loading, is loading again, or was packed in our atlas
+     */
+    public static final Bitmap getImage(final Object key)
+    {
+    	final Bitmap image = IMAGES.get(key);
+    	
+    	if (image == null)
+    	{
+    		//if we don't know where the image is, it hasn't finished loading
+    		final String path = PATHS.get(key);
+    		
+    		if (path != null)
+    			reload(key, path);
+    	}
+    	
+    	return image;
+    }
+    
+    /**
+     * Assign the scope of the current screen.<br>
+     * The images in the scope will stay loaded, other images may be removed when we are over budget
+     * @param keys The keys of the images the current screen needs
+     */
+    public static final void setScope(final Object... keys)
+    {
+    	IMAGES.setScope(keys);
+    }
+    
+    /**
+     * Assign the image budget.<br>
+     * If we are over the new budget, images outside of the current scope will be removed
+     * @param budget The maximum number of bytes we want our decoded images to use
+     */
+    public static final void setImageBudget(final long budget)
+    {
+    	IMAGES.setBudget(budget);
+    }
+    
+    /**
+     * Get the image budget
+     * @return The maximum number of bytes we want our decoded images to use
+     */
+    public static final long getImageBudget()
+    {
+    	return IMAGES.getBudget();
+    }
+    
+    /**
+     * Get the image bytes.<br>
+     * This counts every image we own: our decoded images that are currently loaded, the pages of our atlas and the glyphs of our numbers
+     * @return The number of bytes used by the images
+     */
+    public static final long getImageBytes()
+    {
+    	final Atlas atlas = getAtlas();
+    	
+    	return IMAGES.getBytes() + ((atlas != null) ? atlas.getBytes() : 0) + Glyphs.getBytes();
     }
     
     /**
      * Recycle all assets
      */
-    public static void recycle()
+    public static synchronized void recycle()
     {
         try
         {
+        	//any task still running belongs to a previous load now, so its results will be ignored
+        	GENERATION++;
+        	
+        	//stop loading any remaining assets, we don't wait as this is called from the UI thread
+        	if (EXECUTOR != null)
+        	{
+        		if (!EXECUTOR.shutdownNow().isEmpty() || !EXECUTOR.isTerminated())
+        		{
+        			if (MainThread.DEBUG)
+        				System.out.println("Assets recycled while still loading, their results will be ignored");
+        		}
+        		
+        		EXECUTOR = null;
+        	}
+        	
+        	//recycle our atlas
+        	if (ATLAS != null)
+        	{
+        		ATLAS.dispose();
+        		ATLAS = null;
+        	}
+        	
+        	//recycle our decoded images
+        	IMAGES.recycle();
+        	PATHS.clear();
+        	RELOADING.clear();
+        	Glyphs.recycle();
+        	
             Images.dispose();
             Font.dispose();
             Audio.dispose();
@@ -0,0 +1,239 @@
+package com.gamesbykevin.stack.assets;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+
+import com.gamesbykevin.androidframework.resources.Disposable;
+
+import android.graphics.Bitmap;
+import android.graphics.Bitmap.Config;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+
+/**
+ * Combines many small images into as few large images (pages) as possible.<br>
+ * Each image is packed in rows (shelves) from tallest to shortest, and we keep the region where each image was placed
+ * @author GOD
+ */
+public class Atlas implements Disposable
+{
+	/**
+	 * The maximum width and height of each page
+	 */
+	public static final int PAGE_SIZE = 1024;
+	
+	/**
+	 * The space between each image, so the images don't bleed into each other when scaled
+	 */
+	private static final int PADDING = 2;
+	
+	//the images containing our packed images
+	private Bitmap[] pages;
+	
+	//the page each image was placed on
+	private final HashMap<Object, Integer> indexes = new HashMap<Object, Integer>();
+	
+	//the region of the page each image was placed in
+	private final HashMap<Object, Rect> regions = new HashMap<Object, Rect>();
+	
+	//the rectangle where we render an image
+	private final Rect destination = new Rect();
+	
+	/**
+	 * Pack the images
+	 * @param keys The keys of the images we want to pack
+	 * @param decoded The decoded image for each key, in the same order as the keys
+	 * @throws Exception If an image is missing or too large for a page
+	 */
+	public Atlas(final Object[] keys, final Bitmap[] decoded) throws Exception
+	{
+		//the decoded image of each key
+		final HashMap<Object, Bitmap> images = new HashMap<Object, Bitmap>();
+		
+		for (int i = 0; i < keys.length; i++)
+		{
+			if (decoded[i] == null)
+				throw new Exception("Image not loaded: " + keys[i].toString());
+			
+			images.put(keys[i], decoded[i]);
+		}
+		
+		//sort the keys from the tallest to the shortest image
+		final Object[] sorted = Arrays.copyOf(keys, keys.length);
+		
+		Arrays.sort(sorted, new Comparator<Object>()
+		{
+			@Override
+			public int compare(final Object key1, final Object key2)
+			{
+				return images.get(key2).getHeight() - images.get(key1).getHeight();
+			}
+		});
+		
+		//the current page, and the height used on each page
+		int page = 0;
+		final int[] heights = new int[sorted.length];
+		
+		//the location of the next image, and the height of the current shelf
+		int x = 0, y = 0, shelf = 0;
+		
+		for (Object key : sorted)
+		{
+			final Bitmap image = images.get(key);
+			
+			if (image.getWidth() > PAGE_SIZE || image.getHeight() > PAGE_SIZE)
+				throw new Exception("Image too large for the atlas: " + key.toString());
+			
+			//if the image doesn't fit on this shelf, start a new shelf
+			if (x + image.getWidth() > PAGE_SIZE)
+			{
+				x = 0;
+				y += shelf + PADDING;
+				shelf = 0;
+			}
+			
+			//if the image doesn't fit on this page, start a new page
+			if (y + image.getHeight() > PAGE_SIZE)
+			{
+				page++;
+				x = 0;
+				y = 0;
+				shelf = 0;
+			}
+			
+			//place the image
+			this.indexes.put(key, page);
+			this.regions.put(key, new Rect(x, y, x + image.getWidth(), y + image.getHeight()));
+			
+			//move to the next spot on the shelf
+			x += image.getWidth() + PADDING;
+			shelf = Math.max(shelf, image.getHeight());
+			heights[page] = Math.max(heights[page], y + image.getHeight());
+		}
+		
+		//create each page only as tall as needed
+		this.pages = new Bitmap[page + 1];
+		
+		final Canvas[] canvases = new Canvas[this.pages.length];
+		
+		for (int i = 0; i < this.pages.length; i++)
+		{
+			this.pages[i] = Bitmap.createBitmap(PAGE_SIZE, heights[i], Config.ARGB_8888);
+			canvases[i] = new Canvas(this.pages[i]);
+		}
+		
+		//draw each image in its region
+		for (Object key : sorted)
+		{
+			final Rect region = this.regions.get(key);
+			
+			canvases[this.indexes.get(key)].drawBitmap(images.get(key), region.left, region.top, null);
+		}
+	}
+	
+	/**
+	 * Is the image in our atlas?
+	 * @param key The key of the image
+	 * @return true if the image was packed in our atlas, false otherwise
+	 */
+	public boolean contains(final Object key)
+	{
+		return this.regions.containsKey(key);
+	}
+	
+	/**
+	 * Get the page
+	 * @param key The key of the image
+	 * @return The page containing the image
+	 */
+	public Bitmap getPage(final Object key)
+	{
+		return this.pages[this.indexes.get(key)];
+	}
+	
+	/**
+	 * Get the region
+	 * @param key The key of the image
+	 * @return The region of the page containing the image
+	 */
+	public Rect getRegion(final Object key)
+	{
+		return this.regions.get(key);
+	}
+	
+	/**
+	 * Get the bytes
+	 * @return The number of bytes used by every page
+	 */
+	public long getBytes()
+	{
+		long bytes = 0;
+		
+		if (this.pages != null)
+		{
+			for (Bitmap page : this.pages)
+			{
+				bytes += ImageCache.getBytes(page);
+			}
+		}
+		
+		return bytes;
+	}
+	
+	/**
+	 * Get the number of pages
+	 * @return The number of images containing our packed images
+	 */
+	public int getPageCount()
+	{
+		return this.pages.length;
+	}
+	
+	/**
+	 * Render the image at its original size
+	 * @param canvas The canvas to which we render pixel data
+	 * @param key The key of the image
+	 * @param x The x-coordinate
+	 * @param y The y-coordinate
+	 * @param paint The paint object used to render, may be null
+	 */
+	public void render(final Canvas canvas, final Object key, final int x, final int y, final Paint paint)
+	{
+		final Rect region = getRegion(key);
+		
+		this.destination.set(x, y, x + region.width(), y + region.height());
+		canvas.drawBitmap(getPage(key), region, this.destination, paint);
+	}
+	
+	/**
+	 * Render the image
+	 * @param canvas The canvas to which we render pixel data
+	 * @param key The key of the image
+	 * @param destination The rectangle where we want to render the image
+	 * @param paint The paint object used to render, may be null
+	 */
+	public void render(final Canvas canvas, final Object key, final Rect destination, final Paint paint)
+	{
+		canvas.drawBitmap(getPage(key), getRegion(key), destination, paint);
+	}
+	
+	@Override
+	public void dispose()
+	{
+		if (this.pages != null)
+		{
+			for (int i = 0; i < this.pages.length; i++)
+			{
+				this.pages[i].recycle();
+				this.pages[i] = null;
+			}
+			
+			this.pages = null;
+		}
+		
+		this.indexes.clear();
+		this.regions.clear();
+	}
+}
@@ -0,0 +1,181 @@
+package com.gamesbykevin.stack.assets;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import android.graphics.Bitmap;
+
+/**
+ * Keeps our decoded images within a memory budget.<br>
+ * When we are over budget, the least recently used images outside the current scope are removed.<br>
+ * Removed images are not recycled, because they may still be drawn this frame, they are released once no longer referenced
+ * @author GOD
+ */
+public class ImageCache
+{
+	//our images, ordered from least to most recently used
+	private final LinkedHashMap<Object, Bitmap> images = new LinkedHashMap<Object, Bitmap>(16, 0.75f, true);
+	
+	//the images that can't be removed, because the current screen needs them
+	private final HashSet<Object> scope = new HashSet<Object>();
+	
+	//the maximum number of bytes we want our images to use
+	private long budget;
+	
+	//the number of bytes our images currently use
+	private long bytes = 0;
+	
+	/**
+	 * Create an empty cache
+	 * @param budget The maximum number of bytes we want our images to use
+	 */
+	public ImageCache(final long budget)
+	{
+		setBudget(budget);
+	}
+	
+	/**
+	 * Assign the budget.<br>
+	 * If we are over the new budget, images will be removed
+	 * @param budget The maximum number of bytes we want our images to use
+	 */
+	public synchronized void setBudget(final long budget)
+	{
+		this.budget = budget;
+		
+		trim();
+	}
+	
+	/**
+	 * Get the budget
+	 * @return The maximum number of bytes we want our images to use
+	 */
+	public synchronized long getBudget()
+	{
+		return this.budget;
+	}
+	
+	/**
+	 * Get the bytes
+	 * @return The number of bytes our images currently use
+	 */
+	public synchronized long getBytes()
+	{
+		return this.bytes;
+	}
+	
+	/**
+	 * Assign the scope.<br>
+	 * Only the images in the scope are safe from being removed
+	 * @param keys The keys of the images the current screen needs
+	 */
+	public synchronized void setScope(final Object[] keys)
+	{
+		this.scope.clear();
+		
+		for (Object key : keys)
+		{
+			this.scope.add(key);
+		}
+		
+		trim();
+	}
+	
+	/**
+	 * Get the image, and mark it as the most recently used
+	 * @param key The key of the image
+	 * @return The image, or null if we don't have it
+	 */
+	public synchronized Bitmap get(final Object key)
+	{
+		return this.images.get(key);
+	}
+	
+	/**
+	 * Do we have the image?
+	 * @param key The key of the image
+	 * @return true if we have the image, false otherwise
+	 */
+	public synchronized boolean contains(final Object key)
+	{
+		return this.images.containsKey(key);
+	}
+	
+	/**
+	 * Add the image.<br>
+	 * If we are over budget, images will be removed
+	 * @param key The key of the image
+	 * @param image The decoded image
+	 */
+	public synchronized void put(final Object key, final Bitmap image)
+	{
+		//remove any existing image with the same key
+		remove(key);
+		
+		this.images.put(key, image);
+		this.bytes += getBytes(image);
+		
+		trim();
+	}
+	
+	/**
+	 * Remove the image
+	 * @param key The key of the image
+	 * @return The image removed, or null if we don't have it
+	 */
+	public synchronized Bitmap remove(final Object key)
+	{
+		final Bitmap image = this.images.remove(key);
+		
+		if (image != null)
+			this.bytes -= getBytes(image);
+		
+		return image;
+	}
+	
+	/**
+	 * Remove the least recently used images outside of the scope, until we are within budget
+	 */
+	private void trim()
+	{
+		final Iterator<Map.Entry<Object, Bitmap>> iterator = this.images.entrySet().iterator();
+		
+		while (this.bytes > this.budget && iterator.hasNext())
+		{
+			final Map.Entry<Object, Bitmap> entry = iterator.next();
+			
+			//we can't remove images the current screen needs
+			if (this.scope.contains(entry.getKey()))
+				continue;
+			
+			this.bytes -= getBytes(entry.getValue());
+			iterator.remove();
+		}
+	}
+	
+	/**
+	 * Remove and recycle every image
+	 */
+	public synchronized void recycle()
+	{
+		for (Bitmap image : this.images.values())
+		{
+			image.recycle();
+		}
+		
+		this.images.clear();
+		this.bytes = 0;
+	}
+	
+	/**
+	 * Get the bytes
+	 * @param image The image, may be null
+	 * @return The number of bytes used by the image pixels, 0 if there is no image
+	 */
+	public static long getBytes(final Bitmap image)
+	{
+		return (image == null) ? 0 : (long)image.getRowBytes() * image.getHeight();
+	}
+}
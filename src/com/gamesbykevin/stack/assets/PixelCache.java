@@ -0,0 +1,299 @@
+package com.gamesbykevin.stack.assets;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+
+import android.content.Context;
+import android.content.pm.PackageInfo;
+import android.graphics.Bitmap;
+import android.graphics.Bitmap.Config;
+
+/**
+ * Keeps our decoded images in internal storage as raw pixels.<br>
+ * Reading the pixels back is a single copy from a memory mapped file, so we don't need to decode the image again.<br>
+ * The cache is only valid for the install of the game it was created with, images decoded for a size of surface are also kept by that size.<br>
+ * Creating the cache reads and deletes files, so it should not be created on the UI thread
+ * @author GOD
+ */
+public class PixelCache
+{
+	/**
+	 * The directory in internal storage containing every version of the cache
+	 */
+	private static final String DIRECTORY = "pixels";
+	
+	/**
+	 * The file extension of each cached image
+	 */
+	private static final String EXTENSION = ".raw";
+	
+	/**
+	 * The number of bytes before the pixels (width, height, config)
+	 */
+	private static final int HEADER_SIZE = 3 * 4;
+	
+	/**
+	 * The configs we are able to store
+	 */
+	private static final Config[] CONFIGS = {Config.ARGB_8888, Config.RGB_565};
+	
+	//the directory of the cache for this install
+	private final File directory;
+	
+	/**
+	 * Create the cache, removing any cache created for a different install
+	 * @param context Object used to find internal storage
+	 * @throws Exception
+	 */
+	public PixelCache(final Context context) throws Exception
+	{
+		//the installed package of the game
+		final PackageInfo info = context.getPackageManager().getPackageInfo(context.getPackageName(), 0);
+		
+		//the parent directory containing every version of the cache
+		final File parent = new File(context.getFilesDir(), DIRECTORY);
+		
+		//our cache is identified by the version and when it was installed, as the assets may change without a new version
+		this.directory = new File(parent, info.versionCode + "_" + info.lastUpdateTime);
+		
+		//remove any cache that is no longer valid
+		final File[] files = parent.listFiles();
+		
+		if (files != null)
+		{
+			for (File file : files)
+			{
+				if (!file.getName().equals(this.directory.getName()))
+					delete(file);
+			}
+		}
+		
+		//make sure our directory exists
+		if (!this.directory.exists() && !this.directory.mkdirs())
+			throw new Exception("Unable to create directory " + this.directory.getAbsolutePath());
+	}
+	
+	/**
+	 * Delete the file, and if it is a directory everything inside it
+	 * @param file The file we want to delete
+	 */
+	private static void delete(final File file)
+	{
+		final File[] files = file.listFiles();
+		
+		if (files != null)
+		{
+			for (File child : files)
+			{
+				delete(child);
+			}
+		}
+		
+		file.delete();
+	}
+	
+	/**
+	 * Get the file of the image
+	 * @param key The key of the image
+	 * @return The file where the image pixels are kept
+	 */
+	private File getFile(final Object key)
+	{
+		return new File(this.directory, key.getClass().getSimpleName() + "_" + key.toString() + EXTENSION);
+	}
+	
+	/**
+	 * Get the file of the image decoded for a size
+	 * @param key The key of the image
+	 * @param width The width the image was decoded for
+	 * @param height The height the image was decoded for
+	 * @return The file where the image pixels are kept
+	 */
+	private File getFile(final Object key, final int width, final int height)
+	{
+		return new File(this.directory, key.getClass().getSimpleName() + "_" + key.toString() + "_" + width + "x" + height + EXTENSION);
+	}
+	
+	/**
+	 * Read the image from the cache
+	 * @param key The key of the image
+	 * @return The image, or null if the image is not in the cache or could not be read
+	 */
+	public Bitmap read(final Object key)
+	{
+		return read(getFile(key));
+	}
+	
+	/**
+	 * Read the image decoded for a size from the cache
+	 * @param key The key of the image
+	 * @param width The width the image was decoded for
+	 * @param height The height the image was decoded for
+	 * @return The image, or null if the image is not in the cache at this size or could not be read
+	 */
+	public Bitmap read(final Object key, final int width, final int height)
+	{
+		return read(getFile(key, width, height));
+	}
+	
+	/**
+	 * Read the image from the file
+	 * @param file The file where the image pixels are kept
+	 * @return The image, or null if the file does not exist or could not be read
+	 */
+	private static Bitmap read(final File file)
+	{
+		//if the image isn't cached, we can't read it
+		if (!file.exists())
+			return null;
+		
+		RandomAccessFile input = null;
+		
+		try
+		{
+			input = new RandomAccessFile(file, "r");
+			
+			//map the entire file into memory
+			final MappedByteBuffer buffer = input.getChannel().map(MapMode.READ_ONLY, 0, input.length());
+			
+			//read the header
+			final int width = buffer.getInt();
+			final int height = buffer.getInt();
+			final int config = buffer.getInt();
+			
+			//make sure the header is valid
+			if (width < 1 || height < 1 || config < 0 || config >= CONFIGS.length)
+				return null;
+			
+			final Bitmap image = Bitmap.createBitmap(width, height, CONFIGS[config]);
+			
+			//make sure we have all the pixels
+			if (buffer.remaining() < image.getByteCount())
+			{
+				image.recycle();
+				return null;
+			}
+			
+			//copy the pixels straight into our image
+			image.copyPixelsFromBuffer(buffer);
+			
+			return image;
+		}
+		catch (Exception e)
+		{
+			e.printStackTrace();
+			
+			//the file is no good, so remove it
+			file.delete();
+			
+			return null;
+		}
+		finally
+		{
+			close(input);
+		}
+	}
+	
+	/**
+	 * Write the image to the cache
+	 * @param key The key of the image
+	 * @param image The decoded image
+	 */
+	public void write(final Object key, final Bitmap image)
+	{
+		write(getFile(key), image);
+	}
+	
+	/**
+	 * Write the image decoded for a size to the cache
+	 * @param key The key of the image
+	 * @param width The width the image was decoded for
+	 * @param height The height the image was decoded for
+	 * @param image The decoded image
+	 */
+	public void write(final Object key, final int width, final int height, final Bitmap image)
+	{
+		write(getFile(key, width, height), image);
+	}
+	
+	/**
+	 * Write the image to the file.<br>
+	 * The pixels are written to a temporary file first, so a partial file is never read
+	 * @param file The file where the image pixels are kept
+	 * @param image The decoded image
+	 */
+	private static void write(final File file, final Bitmap image)
+	{
+		//find the config of the image
+		int config = -1;
+		
+		for (int i = 0; i < CONFIGS.length; i++)
+		{
+			if (CONFIGS[i] == image.getConfig())
+				config = i;
+		}
+		
+		//if we can't store this config, don't continue
+		if (config < 0)
+			return;
+		
+		final File temp = new File(file.getAbsolutePath() + ".tmp");
+		
+		RandomAccessFile output = null;
+		
+		try
+		{
+			output = new RandomAccessFile(temp, "rw");
+			
+			//map the entire file into memory
+			final FileChannel channel = output.getChannel();
+			final ByteBuffer buffer = channel.map(MapMode.READ_WRITE, 0, HEADER_SIZE + image.getByteCount());
+			
+			//write the header
+			buffer.putInt(image.getWidth());
+			buffer.putInt(image.getHeight());
+			buffer.putInt(config);
+			
+			//copy the pixels straight from our image
+			image.copyPixelsToBuffer(buffer);
+			
+			close(output);
+			output = null;
+			
+			//now the file is complete
+			if (!temp.renameTo(file))
+				temp.delete();
+		}
+		catch (Exception e)
+		{
+			e.printStackTrace();
+			
+			temp.delete();
+		}
+		finally
+		{
+			close(output);
+		}
+	}
+	
+	/**
+	 * Close the file, ignoring any errors
+	 * @param file The file we want to close
+	 */
+	private static void close(final RandomAccessFile file)
+	{
+		try
+		{
+			if (file != null)
+				file.close();
+		}
+		catch (Exception e)
+		{
+			e.printStackTrace();
+		}
+	}
+}
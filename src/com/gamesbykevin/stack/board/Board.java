@@ -3,11 +3,18 @@ package com.gamesbykevin.stack.board;
 import java.util.ArrayList;
 import java.util.List;
 
+import com.gamesbykevin.androidframework.anim.Animation;
 import com.gamesbykevin.androidframework.resources.Disposable;
 import com.gamesbykevin.stack.common.ICommon;
 import com.gamesbykevin.stack.panel.GamePanel;
+import com.gamesbykevin.stack.piece.Batch;
+import com.gamesbykevin.stack.piece.Occlusion;
 import com.gamesbykevin.stack.piece.Piece;
 import com.gamesbykevin.stack.piece.PieceHelper;
+import com.gamesbykevin.stack.piece.Pool;
+import com.gamesbykevin.stack.thread.MainThread;
+import com.gamesbykevin.stack.tween.Easing;
+import com.gamesbykevin.stack.tween.Tween;
 import android.graphics.Canvas;
 
 /**
@@ -16,9 +23,12 @@ import android.graphics.Canvas;
  */
 public class Board implements Disposable, ICommon
 {
-	//the list of pieces on the board
+	//the list of pieces on the board that are still visible
 	private List<Piece> pieces;
 	
+	//the count of the pieces that have scrolled off the board
+	private History history;
+	
 	//the starting coordinate of the first piece
 	public static final int START_X = (GamePanel.WIDTH / 2);
 	
@@ -28,10 +38,53 @@ public class Board implements Disposable, ICommon
 	//the start and end coordinates when moving the pieces down
 	private double startY = 0, endY = 0;
 	
+	//the start coordinate before the most recent update
+	private double previousY = 0;
+	
+	//how far the camera has scrolled, the pieces themselves never move
+	private double offsetY = 0;
+	
 	/**
-	 * How many pixels can we move the pieces down per update
+	 * The different ways we can render the pieces on the board
 	 */
-	private static final double Y_VELOCITY = (PieceHelper.ROW_HEIGHT_RENDER / 5);
+	public enum RenderMode
+	{
+		//each side is rendered as its own path
+		Path, 
+		
+		//every side is collected and rendered in a single call
+		Vertices
+	}
+	
+	/**
+	 * The default way to render the pieces on the board
+	 */
+	public static final RenderMode DEFAULT_RENDER_MODE = RenderMode.Vertices;
+	
+	//how we currently render the pieces
+	private RenderMode renderMode = DEFAULT_RENDER_MODE;
+	
+	//collects the sides of every piece when rendering in a single call
+	private Batch batch;
+	
+	//the image of the settled pieces
+	private Layer layer;
+	
+	//skips the parts of the pieces covered by the piece above
+	private Occlusion occlusion;
+	
+	/**
+	 * Do we skip rendering the parts of the pieces covered by the piece above?
+	 */
+	public static final boolean OCCLUSION = true;
+	
+	/**
+	 * How long it takes to scroll the pieces down one row (nanoseconds)
+	 */
+	private static final long SCROLL_DURATION = (Animation.NANO_SECONDS_PER_SECOND / 6);
+	
+	//scrolls the pieces down to make room for the next piece
+	private final Tween scroll = new Tween();
 	
 	/**
 	 * Create a new board
@@ -41,6 +94,18 @@ public class Board implements Disposable, ICommon
 		//create a new list
 		this.pieces = new ArrayList<Piece>();
 		
+		//create our history of pieces
+		this.history = new History();
+		
+		//create the batch to render the pieces
+		this.batch = new Batch();
+		
+		//create the image of the settled pieces
+		this.layer = new Layer();
+		
+		//create our occlusion pass
+		this.occlusion = new Occlusion();
+		
 		//clear and add default piece to board
 		reset();
 	}
@@ -48,11 +113,28 @@ public class Board implements Disposable, ICommon
 	@Override
 	public void reset() 
 	{
-		//clear any existing pieces
+		//return any existing pieces to the pool
+		for (int i = 0; i < getPieces().size(); i++)
+		{
+			Pool.free(getPieces().get(i));
+		}
+		
 		getPieces().clear();
 		
+		//remove any history
+		getHistory().reset();
+		
+		//move the camera back to the start
+		this.offsetY = 0;
+		
+		//the settled pieces will need to be drawn again
+		this.layer.invalidate();
+		
+		//start counting the overdraw again
+		this.occlusion.reset();
+		
 		//create default piece for the bottom
-		Piece piece = new Piece();
+		Piece piece = Pool.obtainPiece();
 		
 		//move the default piece below the current user piece
 		piece.setCol(0);
@@ -61,7 +143,11 @@ public class Board implements Disposable, ICommon
 		
 		//add default footer piece
 		add(piece);
-	}	
+		
+		//there is nothing to interpolate
+		this.previousY = this.startY;
+	}
+	
 	@Override
 	public void dispose() 
 	{
@@ -76,6 +162,26 @@ public class Board implements Disposable, ICommon
 			this.pieces.clear();
 			this.pieces = null;
 		}
+		
+		if (this.history != null)
+		{
+			this.history.dispose();
+			this.history = null;
+		}
+		
+		if (this.batch != null)
+		{
+			this.batch.dispose();
+			this.batch = null;
+		}
+		
+		if (this.layer != null)
+		{
+			this.layer.dispose();
+			this.layer = null;
+		}
+		
+		this.occlusion = null;
 	}
 
 	/**
@@ -90,27 +196,111 @@ public class Board implements Disposable, ICommon
 	/**
 	 * If the pieces are supposed to move down, lets do that
 	 */
+	@Override
 	public void update()
 	{
+		//remember where we were for the render
+		this.previousY = this.startY;
+		
 		//move pieces if we aren't at our destination
 		if (!hasDestination())
 		{
 			//if we aren't at our destination, we need to get there
-			this.startY += Y_VELOCITY;
+			this.scroll.update(MainThread.TICK_NANOS);
 			
-			//if we exceed the destination we made it
-			if (this.startY > this.endY)
-				this.startY = this.endY;
+			//once the scroll is finished we made it
+			this.startY = this.scroll.isFinished() ? this.endY : this.scroll.getValue();
 			
-			//now move all pieces down to make room for the next piece
-			for (int i = 0; i < getPieces().size(); i++)
-			{
-				//move the piece down
-				getPieces().get(i).setY(getPieces().get(i).getY() + Y_VELOCITY);
-			}
+			//scroll the camera down to make room for the next piece
+			this.offsetY += (this.startY - this.previousY);
+			
+			//remove any pieces we scrolled past
+			removeHidden();
+		}
+	}
+	
+	/**
+	 * Remove the pieces that have scrolled off the bottom of the screen.<br>
+	 * The pieces won't be displayed again, so we only keep a compact record of them
+	 */
+	private void removeHidden()
+	{
+		//the bottom piece is the first, and we always keep the top piece
+		while (getPieces().size() > 1)
+		{
+			//get the bottom piece
+			final Piece piece = getPieces().get(0);
+			
+			//if the bottom piece is still visible, every piece above it is as well
+			if (piece.getTopY() + this.offsetY <= GamePanel.HEIGHT)
+				break;
+			
+			//count the piece
+			getHistory().add();
+			
+			//return the piece to the pool
+			Pool.free(piece);
+			
+			//remove it from the board
+			getPieces().remove(0);
 		}
 	}
 	
+	/**
+	 * Get the layer
+	 * @return The image of the settled pieces
+	 */
+	public Layer getLayer()
+	{
+		return this.layer;
+	}
+	
+	/**
+	 * Get the history
+	 * @return The count of the pieces that have scrolled off the board
+	 */
+	public History getHistory()
+	{
+		return this.history;
+	}
+	
+	/**
+	 * Get the overdraw avoided
+	 * @return The number of pixels we did not need to render because they are covered by the piece above
+	 */
+	public long getOverdrawAvoided()
+	{
+		return this.occlusion.getAvoided();
+	}
+	
+	/**
+	 * Assign the render mode
+	 * @param renderMode How we want to render the pieces on the board
+	 */
+	public void setRenderMode(final RenderMode renderMode)
+	{
+		this.renderMode = renderMode;
+	}
+	
+	/**
+	 * Get the render mode
+	 * @return How we currently render the pieces on the board
+	 */
+	public RenderMode getRenderMode()
+	{
+		return this.renderMode;
+	}
+	
+	/**
+	 * Get the y-offset of the camera
+	 * @param interpolation How far (0.0 - 1.0) we are from the previous update to the current update
+	 * @return The distance to translate the pieces when rendering, between the previous and current update
+	 */
+	public float getOffsetY(final float interpolation)
+	{
+		return (float)(this.offsetY - ((this.startY - this.previousY) * (1.0f - interpolation)));
+	}
+	
 	/**
 	 * Get the pieces
 	 * @return The pieces placed on the board
@@ -151,6 +341,12 @@ public class Board implements Disposable, ICommon
 			//set the start and finish coordinates so we know to move the pieces down
 			startY = piece.getY();
 			endY = startY + PieceHelper.ROW_HEIGHT_RENDER;
+			
+			//start scrolling, slowing down as we reach the destination
+			this.scroll.start((float)startY, (float)endY, SCROLL_DURATION, Easing.EaseOut);
+			
+			//the camera will scroll instead of the piece, so raise the spawn location by the same amount
+			piece.setSpawnY((float)(piece.getSpawnY() - (endY - startY)));
 		}
 		
 		//add the piece to the array
@@ -162,13 +358,137 @@ public class Board implements Disposable, ICommon
 	 * @param canvas The canvas to which we render pixel data
 	 * @throws Exception
 	 */
+	@Override
 	public void render(final Canvas canvas) throws Exception
 	{
-		//render each piece on the board
-		for (int i = 0; i < getPieces().size(); i++)
+		render(canvas, 1.0f);
+	}
+	
+	/**
+	 * Render all the pieces on the board between the previous and current update.<br>
+	 * The settled pieces are drawn once on our layer, only the top piece is rendered every time
+	 * @param canvas The canvas to which we render pixel data
+	 * @param interpolation How far (0.0 - 1.0) we are from the previous update to the current update
+	 * @throws Exception
+	 */
+	public void render(final Canvas canvas, final float interpolation) throws Exception
+	{
+		//where the camera is between updates
+		final float offsetY = getOffsetY(interpolation);
+		
+		//every piece except the top has settled
+		final int settled = getPieces().size() - 1;
+		
+		//the number of pieces that have been removed from the board
+		final int removed = getHistory().getTotal();
+		
+		//if the screen scrolled past our layer, we need to draw it again
+		if (!this.layer.contains(offsetY))
+			this.layer.position(offsetY);
+		
+		//draw any settled pieces that aren't on our layer yet
+		if (removed + settled > this.layer.getBaked())
 		{
-			//render the current piece
-			getPieces().get(i).render(canvas);
+			bake(Math.max(this.layer.getBaked() - removed, 0), settled);
+			
+			//now these pieces are on our layer
+			this.layer.setBaked(removed + settled);
 		}
+		
+		//render the settled pieces
+		this.layer.render(canvas, offsetY);
+		
+		//store the canvas state
+		final int savedState = canvas.save();
+		
+		try
+		{
+			//offset the top piece
+			canvas.translate(0, offsetY);
+			
+			//render the top piece, if it will be rendered on screen
+			if (getTop().getTopY() + offsetY <= GamePanel.HEIGHT)
+				render(canvas, settled, settled + 1);
+		}
+		finally
+		{
+			//restore previous canvas state
+			canvas.restoreToCount(savedState);
+		}
+	}
+	
+	/**
+	 * Draw the pieces on our layer
+	 * @param start The index of the first piece to draw
+	 * @param end The index after the last piece to draw
+	 * @throws Exception
+	 */
+	private void bake(final int start, final int end) throws Exception
+	{
+		//get the canvas of our layer
+		final Canvas canvas = this.layer.getCanvas();
+		
+		//store the canvas state
+		final int savedState = canvas.save();
+		
+		try
+		{
+			//draw at the scale of our layer
+			canvas.scale(this.layer.getScaleX(), this.layer.getScaleY());
+			
+			//line up the board with the top of our layer
+			canvas.translate(0, -this.layer.getTop());
+			
+			//draw the pieces
+			render(canvas, start, end);
+		}
+		finally
+		{
+			//restore previous canvas state
+			canvas.restoreToCount(savedState);
+		}
+	}
+	
+	/**
+	 * Render the pieces in the specified range
+	 * @param canvas The canvas to which we render pixel data
+	 * @param start The index of the first piece to render
+	 * @param end The index after the last piece to render
+	 * @throws Exception
+	 */
+	private void render(final Canvas canvas, final int start, final int end) throws Exception
+	{
+		//start with an empty batch
+		this.batch.reset();
+		
+		//render each piece in the range
+		for (int i = start; i < end; i++)
+		{
+			//get the current piece
+			final Piece piece = getPieces().get(i);
+			
+			//if there is a piece above, skip the part covered by it
+			if (OCCLUSION && i + 1 < getPieces().size())
+			{
+				this.occlusion.render(canvas, (getRenderMode() == RenderMode.Vertices) ? this.batch : null, piece, getPieces().get(i + 1));
+				continue;
+			}
+			
+			//render the current piece, pieces on the board no longer move
+			switch (getRenderMode())
+			{
+				case Vertices:
+					piece.render(this.batch, 1.0f);
+					break;
+					
+				case Path:
+				default:
+					piece.render(canvas);
+					break;
+			}
+		}
+		
+		//render every side collected at once
+		this.batch.render(canvas);
 	}
 }
\ No newline at end of file
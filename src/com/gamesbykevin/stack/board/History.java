@@ -0,0 +1,53 @@
+package com.gamesbykevin.stack.board;
+
+import com.gamesbykevin.androidframework.resources.Disposable;
+
+/**
+ * Counts the pieces that have scrolled off the board.<br>
+ * The pieces themselves are returned to the pool, only the count is needed to know which pieces are on our layer
+ * @author GOD
+ */
+public class History implements Disposable
+{
+	//the total number of pieces ever added
+	private int total = 0;
+
+	/**
+	 * Create an empty history
+	 */
+	public History()
+	{
+		//nothing has scrolled off yet
+	}
+
+	/**
+	 * Remove all records
+	 */
+	public void reset()
+	{
+		this.total = 0;
+	}
+
+	/**
+	 * Count another piece that has scrolled off the board
+	 */
+	public void add()
+	{
+		this.total++;
+	}
+
+	/**
+	 * Get the total
+	 * @return The total number of pieces that have scrolled off the board
+	 */
+	public int getTotal()
+	{
+		return this.total;
+	}
+
+	@Override
+	public void dispose()
+	{
+		this.total = 0;
+	}
+}
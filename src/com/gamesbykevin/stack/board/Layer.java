@@ -0,0 +1,253 @@
+package com.gamesbykevin.stack.board;
+
+import com.gamesbykevin.androidframework.resources.Disposable;
+import com.gamesbykevin.stack.assets.ImageCache;
+import com.gamesbykevin.stack.panel.GamePanel;
+
+import android.graphics.Bitmap;
+import android.graphics.Bitmap.Config;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.RectF;
+
+/**
+ * An offscreen image of the settled pieces on the board.<br>
+ * The settled pieces never change, so they are drawn here once and the image is rendered with the camera offset every frame.<br>
+ * The image is created at the scale of the device, so the settled pieces are as sharp as the top piece.<br>
+ * The scale only changes with the device, so lowering the resolution of the game layer never creates the image again
+ * @author GOD
+ */
+public class Layer implements Disposable
+{
+	/**
+	 * How far we can scroll before we need to draw the layer again
+	 */
+	public static final int MARGIN = GamePanel.HEIGHT / 4;
+	
+	/**
+	 * The height of the layer, one screen plus our margin
+	 */
+	public static final int HEIGHT = GamePanel.HEIGHT + MARGIN;
+	
+	//the image containing the settled pieces
+	private Bitmap bitmap;
+	
+	//the canvas used to draw on our image
+	private Canvas canvas;
+	
+	//the y-coordinate of the board at the top of our image
+	private int top = 0;
+	
+	//the number of pieces drawn on our image
+	private int baked = 0;
+	
+	//is the image ready to be used?
+	private boolean valid = false;
+	
+	//the scale of the device, our image is this many pixels per board pixel
+	private float scaleX = 1.0f, scaleY = 1.0f;
+	
+	//where the image is rendered on the canvas we render to
+	private final RectF destination = new RectF();
+	
+	//smooth the image when the scale doesn't land on whole pixels
+	private final Paint paint = new Paint(Paint.FILTER_BITMAP_FLAG);
+	
+	/**
+	 * Create an empty layer.<br>
+	 * The image is created the first time it is positioned
+	 */
+	public Layer()
+	{
+		//default constructor
+	}
+	
+	/**
+	 * Assign the scale of the device.<br>
+	 * If the size of our image changes, the image is created again and every piece will need to be drawn again
+	 * @param scaleX The x scale of the device compared to our game
+	 * @param scaleY The y scale of the device compared to our game
+	 */
+	public void setScale(final float scaleX, final float scaleY)
+	{
+		//nothing to do if our image would be the same size
+		if (getWidth(scaleX) == getWidth(this.scaleX) && getHeight(scaleY) == getHeight(this.scaleY))
+			return;
+		
+		//use the exact scale of our image, so the board lines up with the edges
+		this.scaleX = (float)getWidth(scaleX) / GamePanel.WIDTH;
+		this.scaleY = (float)getHeight(scaleY) / HEIGHT;
+		
+		//remove the existing image, it is created again when positioned
+		dispose();
+		
+		//every piece needs to be drawn again
+		invalidate();
+	}
+	
+	/**
+	 * Get the width of our image
+	 * @param scaleX The x scale of the device
+	 * @return The width of our image at that scale in pixels
+	 */
+	private static int getWidth(final float scaleX)
+	{
+		return Math.max(1, Math.round(GamePanel.WIDTH * scaleX));
+	}
+	
+	/**
+	 * Get the height of our image
+	 * @param scaleY The y scale of the device
+	 * @return The height of our image at that scale in pixels
+	 */
+	private static int getHeight(final float scaleY)
+	{
+		return Math.max(1, Math.round(HEIGHT * scaleY));
+	}
+	
+	/**
+	 * Get the bytes
+	 * @return The number of bytes used by our image, 0 if it has not been created
+	 */
+	public long getBytes()
+	{
+		return ImageCache.getBytes(this.bitmap);
+	}
+	
+	/**
+	 * Get the x-scale
+	 * @return The number of image pixels per board pixel horizontally
+	 */
+	public float getScaleX()
+	{
+		return this.scaleX;
+	}
+	
+	/**
+	 * Get the y-scale
+	 * @return The number of image pixels per board pixel vertically
+	 */
+	public float getScaleY()
+	{
+		return this.scaleY;
+	}
+	
+	/**
+	 * Discard the image, so every piece will be drawn again
+	 */
+	public void invalidate()
+	{
+		this.valid = false;
+		this.baked = 0;
+	}
+	
+	/**
+	 * Does the layer cover the whole screen?
+	 * @param offsetY The y-offset of the camera
+	 * @return true if the image is valid and the entire screen is within our image, false otherwise
+	 */
+	public boolean contains(final float offsetY)
+	{
+		//we can't use the image
+		if (!this.valid || this.bitmap == null)
+			return false;
+		
+		//the y-coordinate of the board at the top of the screen
+		final float y = -offsetY;
+		
+		return (y >= getTop() && y + GamePanel.HEIGHT <= getTop() + HEIGHT);
+	}
+	
+	/**
+	 * Clear the image and position it so the screen is at the bottom of the layer.<br>
+	 * The tower grows upwards, so this gives us the most room to scroll before we need to do this again
+	 * @param offsetY The y-offset of the camera
+	 */
+	public void position(final float offsetY)
+	{
+		//create our image at the scale of the device if it doesn't exist
+		if (this.bitmap == null)
+		{
+			this.bitmap = Bitmap.createBitmap(getWidth(this.scaleX), getHeight(this.scaleY), Config.ARGB_8888);
+			this.canvas = new Canvas(this.bitmap);
+		}
+		
+		//erase any existing pieces
+		this.bitmap.eraseColor(Color.TRANSPARENT);
+		
+		//line up the bottom of the image with the bottom of the screen
+		this.top = (int)Math.floor(GamePanel.HEIGHT - offsetY) - HEIGHT;
+		
+		//nothing has been drawn yet
+		this.baked = 0;
+		
+		//the image is ready to be used
+		this.valid = true;
+	}
+	
+	/**
+	 * Get the top
+	 * @return The y-coordinate of the board at the top of our image
+	 */
+	public int getTop()
+	{
+		return this.top;
+	}
+	
+	/**
+	 * Get the canvas.<br>
+	 * The canvas isn't scaled, apply getScaleX() and getScaleY() before drawing
+	 * @return The canvas used to draw on our image
+	 */
+	public Canvas getCanvas()
+	{
+		return this.canvas;
+	}
+	
+	/**
+	 * Assign the number of pieces drawn
+	 * @param baked The number of pieces, counted from the first piece ever added to the board
+	 */
+	public void setBaked(final int baked)
+	{
+		this.baked = baked;
+	}
+	
+	/**
+	 * Get the number of pieces drawn
+	 * @return The number of pieces, counted from the first piece ever added to the board
+	 */
+	public int getBaked()
+	{
+		return this.baked;
+	}
+	
+	/**
+	 * Render the layer
+	 * @param canvas The canvas to which we render pixel data
+	 * @param offsetY The y-offset of the camera
+	 */
+	public void render(final Canvas canvas, final float offsetY)
+	{
+		if (this.bitmap == null)
+			return;
+		
+		//our image covers the layer in board coordinates, the canvas scales it back to its own pixels
+		this.destination.set(0, getTop() + offsetY, GamePanel.WIDTH, getTop() + offsetY + HEIGHT);
+		
+		canvas.drawBitmap(this.bitmap, null, this.destination, this.paint);
+	}
+	
+	@Override
+	public void dispose()
+	{
+		if (this.bitmap != null)
+		{
+			this.bitmap.recycle();
+			this.bitmap = null;
+		}
+		
+		this.canvas = null;
+	}
+}
@@ -11,6 +11,7 @@ import com.gamesbykevin.stack.board.Board;
 import com.gamesbykevin.stack.number.Number;
 import com.gamesbykevin.stack.piece.Piece;
 import com.gamesbykevin.stack.piece.PieceHelper;
+import com.gamesbykevin.stack.piece.Pool;
 import com.gamesbykevin.stack.score.Score;
 import com.gamesbykevin.stack.screen.OptionsScreen;
 import com.gamesbykevin.stack.screen.ScreenManager;
@@ -92,12 +93,16 @@ public final class Game implements IGame
     {
     	if (this.piece == null)
     	{
-    		this.piece = new Piece();
+    		this.piece = Pool.obtainPiece();
     	}
     	else
     	{
+    		//if the previous piece was never placed on the board, we can use it again
+    		if (this.piece != getBoard().getTop())
+    			Pool.free(this.piece);
+    		
     		//create a new piece
-    		this.piece = new Piece(getBoard().getTop());
+    		this.piece = Pool.obtainPiece(getBoard().getTop());
     		
     		//align the piece to be directly on top of the placed piece on the board
     		PieceHelper.alignPiece(getPiece(), getBoard().getTop());
@@ -113,6 +118,15 @@ public final class Game implements IGame
     	return this.score;
     }
     
+    /**
+     * Get the bytes
+     * @return The number of bytes used by the images of our game: the layer of settled pieces and our numbers
+     */
+    public long getBytes()
+    {
+    	return getBoard().getLayer().getBytes() + getCurrent().getBytes() + getRecord().getBytes();
+    }
+    
     /**
      * Get the number object for the current total
      * @return Our number object reference for rendering etc...
@@ -194,8 +208,8 @@ public final class Game implements IGame
 		{
     		if (CAN_INTERACT)
     		{
-				//flag the piece to stop moving
-				getPiece().stop();
+				//flag the piece to stop where it was when the player touched the screen
+				getPiece().stop(getScreen().getPanel().getInput().getTime());
 				
 				//flag that we can't interact with the piece
 				CAN_INTERACT = false;
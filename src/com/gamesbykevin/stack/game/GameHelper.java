@@ -1,11 +1,12 @@
 package com.gamesbykevin.stack.game;
 
-import com.gamesbykevin.androidframework.resources.Images;
 import com.gamesbykevin.stack.assets.Assets;
 import com.gamesbykevin.stack.number.Number;
 import com.gamesbykevin.stack.piece.PieceHelper;
 import com.gamesbykevin.stack.screen.ScreenManager;
+import com.gamesbykevin.stack.thread.MainThread;
 
+import android.graphics.Bitmap;
 import android.graphics.Canvas;
 
 /**
@@ -97,6 +98,9 @@ public final class GameHelper
     			}
     			else
     			{
+    				//update the board
+    				game.getBoard().update();
+    				
     				//update the piece
     				game.getPiece().update(game.getBoard());
     			}
@@ -105,6 +109,9 @@ public final class GameHelper
     		{
     			if (game.getBoard().hasDestination())
     			{
+    				//keep the board up to date, even though the pieces aren't moving
+    				game.getBoard().update();
+    				
 					//update the game piece location/velocity etc...
 					game.getPiece().update(game.getBoard());
     			}
@@ -138,12 +145,15 @@ public final class GameHelper
     	if (!canPlay())
     	{
 			//render splash loading screen
-			canvas.drawBitmap(Images.getImage(Assets.ImageMenuKey.Splash), 0, 0, null);
+			Assets.renderFullscreen(canvas, Assets.ImageMenuKey.Splash);
     	}
     	else
     	{
+    		//only interpolate while the game is updating, otherwise render the current location
+    		final float interpolation = (game.getScreen().getState() == ScreenManager.State.Running) ? MainThread.getInterpolation() : 1.0f;
+    		
     		//draw all existing pieces on the board
-    		game.getBoard().render(canvas);
+    		game.getBoard().render(canvas, interpolation);
     		
     		//render our number of successful attempts
     		game.getCurrent().render(canvas);
@@ -151,11 +161,23 @@ public final class GameHelper
     		//render the current record
     		game.getRecord().render(canvas);
     		
-    		//render the best record text
-    		canvas.drawBitmap(Images.getImage(Assets.ImageGameKey.BestText), Number.BEST_RECORD_X_TEXT, Number.BEST_RECORD_Y, null);
+    		//render the best record text, unless it is loading again
+    		final Bitmap text = Assets.getImage(Assets.ImageGameKey.BestText);
+    		
+    		if (text != null)
+    			canvas.drawBitmap(text, Number.BEST_RECORD_X_TEXT, Number.BEST_RECORD_Y, null);
+    		
+    		//store the canvas state
+    		final int savedState = canvas.save();
+    		
+    		//the current piece follows the same camera as the board
+    		canvas.translate(0, game.getBoard().getOffsetY(interpolation));
     		
     		//render the current piece
-    		game.getPiece().render(canvas);
+    		game.getPiece().render(canvas, interpolation);
+    		
+            //restore previous canvas state
+            canvas.restoreToCount(savedState);
     	}
     }
     
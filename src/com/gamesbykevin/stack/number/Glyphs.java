@@ -0,0 +1,235 @@
+package com.gamesbykevin.stack.number;
+
+import com.gamesbykevin.stack.assets.ImageCache;
+
+import android.graphics.Bitmap;
+import android.graphics.Bitmap.Config;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+
+/**
+ * Every digit of our number image, already scaled to a render size at the scale of the device.<br>
+ * The glyphs are created once when the number image has loaded, and are shared by every number rendered at that size.<br>
+ * A set of glyphs never changes once created, if the scale of the device changes a new set replaces it
+ * @author GOD
+ */
+public final class Glyphs
+{
+	/**
+	 * The number of digits in our number image
+	 */
+	public static final int DIGITS_TOTAL = 10;
+
+	/**
+	 * The sizes we render numbers at
+	 */
+	private static final int[][] SIZES = {
+		{Number.NUMBER_RENDER_WIDTH, Number.NUMBER_RENDER_HEIGHT},
+		{Number.NUMBER_RENDER_WIDTH_SMALL, Number.NUMBER_RENDER_HEIGHT_SMALL}
+	};
+
+	/**
+	 * The paint used to smooth the digits when we scale them
+	 */
+	private static final Paint FILTER = new Paint(Paint.FILTER_BITMAP_FLAG);
+
+	//the glyphs of each size, replaced as a whole so a number never sees a partial set, null until created
+	private static volatile Glyphs[] SHARED = null;
+
+	//every digit scaled, side by side
+	private final Bitmap bitmap;
+
+	//the render size of a digit
+	private final int width, height;
+
+	//the screen size of a digit in pixels
+	private final int glyphWidth, glyphHeight;
+
+	//the scale of the device our glyphs were created for
+	private final float scaleX, scaleY;
+
+	/**
+	 * Create the glyphs of a single size
+	 * @param image The image containing every digit
+	 * @param width The render width of a digit
+	 * @param height The render height of a digit
+	 * @param scaleX The x scale of the device
+	 * @param scaleY The y scale of the device
+	 */
+	private Glyphs(final Bitmap image, final int width, final int height, final float scaleX, final float scaleY)
+	{
+		this.width = width;
+		this.height = height;
+		this.scaleX = scaleX;
+		this.scaleY = scaleY;
+
+		//the screen size of each digit
+		this.glyphWidth = Math.max(1, Math.round(width * scaleX));
+		this.glyphHeight = Math.max(1, Math.round(height * scaleY));
+
+		//create the image to contain every digit
+		this.bitmap = Bitmap.createBitmap(this.glyphWidth * DIGITS_TOTAL, this.glyphHeight, Config.ARGB_8888);
+
+		final Canvas canvas = new Canvas(this.bitmap);
+		final Rect source = new Rect();
+		final Rect destination = new Rect();
+
+		//draw each digit scaled
+		for (int digit = 0; digit < DIGITS_TOTAL; digit++)
+		{
+			source.set(digit * Number.NUMBER_ANIMATION_WIDTH, 0, (digit + 1) * Number.NUMBER_ANIMATION_WIDTH, Number.NUMBER_ANIMATION_HEIGHT);
+			setSource(destination, digit);
+			canvas.drawBitmap(image, source, destination, FILTER);
+		}
+	}
+
+	/**
+	 * Create the glyphs of every size we render numbers at.<br>
+	 * This should be called from our loading threads, as soon as the number image has loaded
+	 * @param image The image containing every digit
+	 * @param scaleX The x scale of the device
+	 * @param scaleY The y scale of the device
+	 */
+	public static void create(final Bitmap image, final float scaleX, final float scaleY)
+	{
+		final Glyphs[] glyphs = new Glyphs[SIZES.length];
+
+		for (int i = 0; i < SIZES.length; i++)
+		{
+			glyphs[i] = new Glyphs(image, SIZES[i][0], SIZES[i][1], scaleX, scaleY);
+		}
+
+		//the previous glyphs may still be drawn by the game thread, so they are left for the garbage collector
+		SHARED = glyphs;
+	}
+
+	/**
+	 * Get the glyphs
+	 * @param width The render width of a digit
+	 * @param height The render height of a digit
+	 * @return The shared glyphs of that size, or null if they have not been created
+	 */
+	public static Glyphs get(final int width, final int height)
+	{
+		final Glyphs[] glyphs = SHARED;
+
+		if (glyphs == null)
+			return null;
+
+		for (Glyphs tmp : glyphs)
+		{
+			if (tmp.width == width && tmp.height == height)
+				return tmp;
+		}
+
+		return null;
+	}
+
+	/**
+	 * Do the glyphs exist for the scale of the device?
+	 * @param scaleX The x scale of the device
+	 * @param scaleY The y scale of the device
+	 * @return true if the glyphs were created at this scale, false otherwise
+	 */
+	public static boolean exists(final float scaleX, final float scaleY)
+	{
+		final Glyphs[] glyphs = SHARED;
+
+		return (glyphs != null && glyphs[0].scaleX == scaleX && glyphs[0].scaleY == scaleY);
+	}
+
+	/**
+	 * Get the bytes
+	 * @return The number of bytes used by the shared glyphs of every size
+	 */
+	public static long getBytes()
+	{
+		final Glyphs[] glyphs = SHARED;
+
+		long bytes = 0;
+
+		if (glyphs != null)
+		{
+			for (Glyphs tmp : glyphs)
+			{
+				bytes += ImageCache.getBytes(tmp.bitmap);
+			}
+		}
+
+		return bytes;
+	}
+
+	/**
+	 * Recycle the shared glyphs of every size
+	 */
+	public static void recycle()
+	{
+		final Glyphs[] glyphs = SHARED;
+
+		SHARED = null;
+
+		if (glyphs != null)
+		{
+			for (Glyphs tmp : glyphs)
+			{
+				tmp.bitmap.recycle();
+			}
+		}
+	}
+
+	/**
+	 * Assign the location of the digit in our glyphs
+	 * @param rect The rectangle we want to assign
+	 * @param digit The digit 0 - 9
+	 */
+	public void setSource(final Rect rect, final int digit)
+	{
+		rect.set(digit * this.glyphWidth, 0, (digit + 1) * this.glyphWidth, this.glyphHeight);
+	}
+
+	/**
+	 * Get the bitmap
+	 * @return Every digit scaled, side by side
+	 */
+	public Bitmap getBitmap()
+	{
+		return this.bitmap;
+	}
+
+	/**
+	 * Get the glyph width
+	 * @return The screen width of a digit in pixels
+	 */
+	public int getGlyphWidth()
+	{
+		return this.glyphWidth;
+	}
+
+	/**
+	 * Get the glyph height
+	 * @return The screen height of a digit in pixels
+	 */
+	public int getGlyphHeight()
+	{
+		return this.glyphHeight;
+	}
+
+	/**
+	 * Get the x scale
+	 * @return The x scale of the device our glyphs were created for
+	 */
+	public float getScaleX()
+	{
+		return this.scaleX;
+	}
+
+	/**
+	 * Get the y scale
+	 * @return The y scale of the device our glyphs were created for
+	 */
+	public float getScaleY()
+	{
+		return this.scaleY;
+	}
+}
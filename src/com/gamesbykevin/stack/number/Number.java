@@ -1,21 +1,24 @@
 package com.gamesbykevin.stack.number;
 
-import java.util.ArrayList;
-
-import com.gamesbykevin.androidframework.anim.Animation;
 import com.gamesbykevin.androidframework.base.Entity;
 import com.gamesbykevin.androidframework.resources.Disposable;
-import com.gamesbykevin.androidframework.resources.Images;
-import com.gamesbykevin.stack.assets.Assets;
+import com.gamesbykevin.stack.assets.ImageCache;
 import com.gamesbykevin.stack.panel.GamePanel;
 
+import android.graphics.Bitmap;
+import android.graphics.Bitmap.Config;
 import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.RectF;
 
 public class Number extends Entity implements Disposable
 {
 	//the dimensions of each number animation
-	private static final int NUMBER_ANIMATION_WIDTH = 200;
-	private static final int NUMBER_ANIMATION_HEIGHT = 144;
+	static final int NUMBER_ANIMATION_WIDTH = 200;
+	static final int NUMBER_ANIMATION_HEIGHT = 144;
 	
 	//the dimensions of each large number render
 	public static final int NUMBER_RENDER_WIDTH = (int) (NUMBER_ANIMATION_WIDTH * .75);
@@ -36,25 +39,46 @@ public class Number extends Entity implements Disposable
 	
 	//where to render the text
 	public static final int BEST_RECORD_X_TEXT = 5;
+	
+	//the most digits a number can have
+	private static final int DIGITS_LIMIT = Integer.toString(Integer.MAX_VALUE).length();
+	
 	/**
-	 * The key for each number animation
+	 * The paint used to smooth our number when the canvas is not at the scale of our glyphs
 	 */
-	private enum Key
-	{
-		Zero(0), One(1), Two(2), Three(3), Four(4), 
-		Five(5), Six(6), Seven(7), Eight(8), Nine(9);
-		
-		private int x, y = 0;
-		
-		private Key(final int col)
-		{
-			x = col * NUMBER_ANIMATION_WIDTH;
-		}
-	}
+	private static final Paint FILTER = new Paint(Paint.FILTER_BITMAP_FLAG);
+	
+	//the digits of our number, the most significant digit first
+	private int[] digits;
+	
+	//the number of digits in our number
+	private int count = 0;
+	
+	//where we render each digit
+	private Rect destination;
+	
+	//the area of an image we want to render
+	private Rect source;
+	
+	//where we render our number when the canvas is not at the scale of our glyphs
+	private RectF scaled;
+	
+	//the shared glyphs our composed image was drawn from
+	private Glyphs glyphs;
+	
+	//the image of our whole number, made from our glyphs
+	private Bitmap composed;
+	
+	//the canvas used to draw on our composed image
+	private Canvas composedCanvas;
+	
+	//do we need to draw our composed image again
+	private boolean dirty = true;
+	
+	//used to get the scale of the canvas
+	private Matrix matrix;
+	private float[] values;
 	
-	//our array object for each digit in our score
-	private ArrayList<Digit> numbers;
-
 	//the number
 	private int number = 0;
 	
@@ -68,8 +92,17 @@ public class Number extends Entity implements Disposable
 		//do we auto center number compared to screen size
 		this.autoCenter = autoCenter;
 		
-		//create a new numbers list
-		this.numbers = new ArrayList<Digit>();
+		//create room for the most digits a number can have
+		this.digits = new int[DIGITS_LIMIT];
+		
+		//create the rectangles where we render each digit
+		this.destination = new Rect();
+		this.source = new Rect();
+		this.scaled = new RectF();
+		
+		//create the objects to check the scale of the canvas
+		this.matrix = new Matrix();
+		this.values = new float[9];
 		
 		//set the dimensions
 		super.setWidth(NUMBER_RENDER_WIDTH);
@@ -77,24 +110,6 @@ public class Number extends Entity implements Disposable
 		
 		//set the start location
 		super.setY(CURRENT_START_Y);
-		
-		//add all number animations
-		for (Key key : Key.values())
-		{
-			getSpritesheet().add(
-				key, 
-				new Animation(
-					Images.getImage(Assets.ImageGameKey.Numbers), 
-					key.x, 
-					key.y, 
-					NUMBER_ANIMATION_WIDTH, 
-					NUMBER_ANIMATION_HEIGHT
-				)
-			);
-		}
-		
-		//set default animation
-		getSpritesheet().setKey(Key.Zero);
 	}
 	
 	@Override
@@ -102,13 +117,33 @@ public class Number extends Entity implements Disposable
 	{
 		super.dispose();
 		
-		if (this.numbers != null)
+		this.digits = null;
+		this.destination = null;
+		this.source = null;
+		this.scaled = null;
+		this.matrix = null;
+		this.values = null;
+		this.composedCanvas = null;
+		
+		//the glyphs are shared, so they are not ours to recycle
+		this.glyphs = null;
+		
+		if (this.composed != null)
 		{
-			this.numbers.clear();
-			this.numbers = null;
+			this.composed.recycle();
+			this.composed = null;
 		}
 	}
 	
+	/**
+	 * Get the bytes
+	 * @return The number of bytes used by our composed image
+	 */
+	public long getBytes()
+	{
+		return ImageCache.getBytes(this.composed);
+	}
+	
 	/**
 	 * Get the number
 	 * @return The number that is rendered in this class
@@ -119,174 +154,162 @@ public class Number extends Entity implements Disposable
 	}
 	
 	/**
-	 * Assign the number animation
+	 * Assign the number
 	 * @param number The desired number
-	 * @param x The starting x-coordinate
-	 * @param y The y-coordinate
-	 * @throws Exception If one of the characters in the number String are not mapped
+	 * @throws Exception If the number is negative
 	 */
 	public void setNumber(final int number) throws Exception
 	{
+		//we can only render positive numbers
+		if (number < 0)
+			throw new Exception("Number can't be negative '" + number + "'");
+		
+		//if the number is the same, the composed image is still correct
+		if (this.number != number)
+			this.dirty = true;
+		
 		//assign the value
 		this.number = number;
-    	
-    	//convert number to string
-    	String numberDesc = Integer.toString(number);
-    	
-    	//disable any unnecessary digits
-    	for (int i = numberDesc.length(); i < numbers.size(); i++)
-    	{
-    		numbers.get(i).setEnabled(false);
-    	}
-    	
-    	//convert string to single characters
-    	char[] characters = numberDesc.toCharArray();
-    	
-    	//calculate the starting x-point so the number is always displayed in the middle
-    	if (this.autoCenter)
-    		setX((GamePanel.WIDTH / 2) - ((NUMBER_RENDER_WIDTH * characters.length) / 2));
-    	
-    	//get the x-coordinate for our starting point
-    	int x = (int)getX();
-    	
-    	//check each character so we can map the animations
-    	for (int i = 0; i < characters.length; i++)
-    	{
-    		//the key for the identified character
-    		Key tmp = null;
-    		
-    		//identify which animation
-    		switch (characters[i])
-    		{
-	    		case '0':
-					tmp = Key.Zero;
-	    			break;
-	    			
-	    		case '1':
-	    			tmp = Key.One;
-	    			break;
-	    			
-	    		case '2':
-	    			tmp = Key.Two;
-	    			break;
-	    			
-	    		case '3':
-	    			tmp = Key.Three;
-	    			break;
-	    			
-	    		case '4':
-	    			tmp = Key.Four;
-	    			break;
-	    			
-	    		case '5':
-	    			tmp = Key.Five;
-	    			break;
-	    			
-	    		case '6':
-	    			tmp = Key.Six;
-	    			break;
-	    			
-	    		case '7':
-	    			tmp = Key.Seven;
-	    			break;
-	    			
-	    		case '8':
-	    			tmp = Key.Eight;
-	    			break;
-	    			
-	    		case '9':
-	    			tmp = Key.Nine;
-	    			break;
-	    			
-				default:
-					throw new Exception("Character not found '" + characters[i] + "'");
-    		}
-    		
-    		//if we are within the array we can reuse
-    		if (i < numbers.size())
-    		{
-    			numbers.get(i).setX(x);
-    			numbers.get(i).setKey(tmp);
-    			numbers.get(i).setEnabled(true);
-    		}
-    		else
-    		{
-    			//else we add a new object to the array
-    			numbers.add(new Digit(x, tmp));
-    		}
-    		
-    		//adjust x-coordinate
-    		x += super.getWidth();
-    	}
+		
+		//count the number of digits, there is always at least 1
+		this.count = 1;
+		
+		for (int value = number / 10; value > 0; value /= 10)
+		{
+			this.count++;
+		}
+		
+		//store each digit, starting with the least significant digit at the end
+		int value = number;
+		
+		for (int i = this.count - 1; i >= 0; i--)
+		{
+			this.digits[i] = value % 10;
+			value /= 10;
+		}
+		
+		//calculate the starting x-point so the number is always displayed in the middle
+		if (this.autoCenter)
+			setX((GamePanel.WIDTH / 2) - ((NUMBER_RENDER_WIDTH * this.count) / 2));
 	}
 	
-    /**
-     * Render the assigned number
-     * @param canvas
-     */
+	/**
+	 * Draw the digits of our number on our composed image
+	 */
+	private void compose()
+	{
+		final int glyphWidth = this.glyphs.getGlyphWidth();
+		final int glyphHeight = this.glyphs.getGlyphHeight();
+		
+		//the width of our whole number
+		final int width = glyphWidth * this.count;
+		
+		//if the number no longer fits, or the glyphs changed size, we need a new image
+		if (this.composed == null || this.composed.getWidth() < width || this.composed.getHeight() != glyphHeight)
+		{
+			if (this.composed != null)
+				this.composed.recycle();
+			
+			this.composed = Bitmap.createBitmap(width, glyphHeight, Config.ARGB_8888);
+			this.composedCanvas = new Canvas(this.composed);
+		}
+		
+		//erase the previous number
+		this.composed.eraseColor(Color.TRANSPARENT);
+		
+		//draw every digit, no scaling needed
+		for (int i = 0; i < this.count; i++)
+		{
+			this.glyphs.setSource(this.source, this.digits[i]);
+			this.destination.set(i * glyphWidth, 0, (i + 1) * glyphWidth, glyphHeight);
+			this.composedCanvas.drawBitmap(this.glyphs.getBitmap(), this.source, this.destination, null);
+		}
+		
+		//the composed image is up to date
+		this.dirty = false;
+	}
+	
+	/**
+	 * Render the assigned number.<br>
+	 * The number is drawn once from the shared glyphs at the scale of the device, so rendering does not need to scale.<br>
+	 * If the canvas is at a lower resolution, our number is scaled down to it instead
+	 * @param canvas
+	 */
 	@Override
-    public void render(final Canvas canvas) throws Exception
-    {
-    	//check every digit in the list
-		for (int i = 0; i < numbers.size(); i++)
+	public void render(final Canvas canvas) throws Exception
+	{
+		//we can't render if there is no number assigned
+		if (this.count < 1)
+			return;
+		
+		//the shared glyphs for our size, they are created once the number image has loaded
+		final Glyphs glyphs = Glyphs.get((int)getWidth(), (int)getHeight());
+		
+		if (glyphs == null)
+			return;
+		
+		//if the glyphs were replaced, our composed image needs to be drawn again
+		if (this.glyphs != glyphs)
+		{
+			this.glyphs = glyphs;
+			this.dirty = true;
+		}
+		
+		//if the number changed, draw it again
+		if (this.dirty)
+			compose();
+		
+		//get the scale of the canvas
+		canvas.getMatrix(this.matrix);
+		this.matrix.getValues(this.values);
+		
+		final float scaleX = this.values[Matrix.MSCALE_X];
+		final float scaleY = this.values[Matrix.MSCALE_Y];
+		
+		//we can't render if there is no size
+		if (scaleX <= 0 || scaleY <= 0)
+			return;
+		
+		final int glyphWidth = glyphs.getGlyphWidth();
+		final int glyphHeight = glyphs.getGlyphHeight();
+		
+		this.source.set(0, 0, glyphWidth * this.count, glyphHeight);
+		
+		//if the canvas isn't at the scale of our glyphs, let the canvas scale our number
+		if (scaleX != glyphs.getScaleX() || scaleY != glyphs.getScaleY())
 		{
-			//get the current digit object
-			final Digit digit = numbers.get(i);
+			this.scaled.set(
+				(float)getX(), 
+				(float)getY(), 
+				(float)getX() + ((float)glyphWidth * this.count / glyphs.getScaleX()), 
+				(float)getY() + ((float)glyphHeight / glyphs.getScaleY())
+			);
+			
+			canvas.drawBitmap(this.composed, this.source, this.scaled, FILTER);
+			return;
+		}
+		
+		//store the canvas state
+		final int savedState = canvas.save();
+		
+		try
+		{
+			//undo the scale so we render screen pixels
+			canvas.scale(1 / scaleX, 1 / scaleY);
+			
+			//the screen location of our number
+			final int x = Math.round((float)getX() * scaleX);
+			final int y = Math.round((float)getY() * scaleY);
 			
-			//if this is not enabled no need to continue
-			if (!digit.isEnabled())
-				return;
+			this.destination.set(x, y, x + this.source.width(), y + this.source.height());
 			
-    		//assign x-coordinate location
-    		setX(digit.x);
-    		
-    		//assign animation
-    		getSpritesheet().setKey(digit.key);
-    		
-    		//render animation
-    		super.render(canvas);
+			//render our composed number
+			canvas.drawBitmap(this.composed, this.source, this.destination, null);
 		}
-    }
-    
-    /**
-     * This class will keep track of each digit in our number
-     */
-    private class Digit
-    {
-    	//location
-    	private int x;
-    	
-    	//animation to render
-    	private Key key;
-    	
-    	//are we rendering this digit
-    	private boolean enabled = true;
-    	
-    	private Digit(final int x, final Key key)
-    	{
-    		setX(x);
-    		setKey(key);
-    		setEnabled(true);
-    	}
-    	
-    	private final void setX(final int x)
-    	{
-    		this.x = x;
-    	}
-    	
-    	private final void setKey(final Key key)
-    	{
-    		this.key = key;
-    	}
-    	
-    	private final void setEnabled(final boolean enabled)
-    	{
-    		this.enabled = enabled;
-    	}
-    	
-    	private final boolean isEnabled()
-    	{
-    		return this.enabled;
-    	}
-    }
+		finally
+		{
+			//restore previous canvas state
+			canvas.restoreToCount(savedState);
+		}
+	}
 }
\ No newline at end of file
@@ -5,6 +5,7 @@ import android.view.MotionEvent;
 import android.view.SurfaceHolder;
 import android.view.SurfaceView;
 
+import com.gamesbykevin.androidframework.anim.Animation;
 import com.gamesbykevin.androidframework.resources.Audio;
 import com.gamesbykevin.androidframework.resources.Disposable;
 import com.gamesbykevin.stack.MainActivity;
@@ -30,6 +31,27 @@ public class GamePanel extends SurfaceView implements SurfaceHolder.Callback, Di
     public static final int WIDTH = 480;
     public static final int HEIGHT = 800;
     
+    /**
+     * The different ways we can scale our game to the size of the screen
+     */
+    public enum ScaleMode
+    {
+    	/**
+    	 * Render at the size of the screen, scaling the canvas every frame
+    	 */
+    	Software, 
+    	
+    	/**
+    	 * Render to a buffer the size of our game, and let the display hardware scale it to the screen
+    	 */
+    	Hardware
+    }
+    
+    /**
+     * The way we scale our game by default
+     */
+    public static final ScaleMode DEFAULT_SCALE_MODE = ScaleMode.Software;
+    
     //the reference to our activity
     private final MainActivity activity;
     
@@ -37,19 +59,25 @@ public class GamePanel extends SurfaceView implements SurfaceHolder.Callback, Di
     private ScreenManager screen;
     
     //our main game thread
-    private MainThread thread;
+    private volatile MainThread thread;
     
     //did motion event down happen
     private boolean down = false;
     
-    //get the ratio of the users screen compared to the default dimensions for the motion event
-    private float scaleMotionX, scaleMotionY;
-
-    //get the ratio of the users screen compared to the default dimensions for the render
-    private float scaleRenderX, scaleRenderY;
+    //the screen ratio, written on the UI thread and read by the game thread as a whole, null until calculated
+    private volatile Ratio ratio = null;
+    
+    //how do we scale our game to the size of the screen
+    private volatile ScaleMode scaleMode = DEFAULT_SCALE_MODE;
+    
+    //chooses the resolution of the game layer based on how long our frames take to render
+    private final ResolutionGovernor governor = new ResolutionGovernor();
+    
+    //the motion events waiting for the game thread
+    private final InputQueue input = new InputQueue();
     
-    //did we calculate the screen ratio yet?
-    private boolean ratio = false;
+    //the most updates the game thread will perform before rendering, kept here because the thread is created again with each surface
+    private volatile int tickLimit = MainThread.DEFAULT_TICK_LIMIT;
     
     /**
      * Create a new game panel
@@ -77,6 +105,115 @@ public class GamePanel extends SurfaceView implements SurfaceHolder.Callback, Di
     	return this.thread;
     }
     
+    /**
+     * Get the average frame time
+     * @return The average time between frames of the current game thread (milliseconds), 0 if there is no thread
+     */
+    public double getFrameTimeMean()
+    {
+    	final MainThread thread = getThread();
+    	
+    	return (thread != null) ? thread.getFrameTimeMean() : 0;
+    }
+    
+    /**
+     * Get the frame time variance
+     * @return The variance of the time between frames of the current game thread (milliseconds squared), 0 if there is no thread
+     */
+    public double getFrameTimeVariance()
+    {
+    	final MainThread thread = getThread();
+    	
+    	return (thread != null) ? thread.getFrameTimeVariance() : 0;
+    }
+    
+    /**
+     * Set the tick limit.<br>
+     * The limit is kept for every game thread we create, the current thread is updated right away
+     * @param tickLimit The most updates we will perform before rendering, must be at least 1
+     */
+    public void setTickLimit(final int tickLimit)
+    {
+    	this.tickLimit = Math.max(1, tickLimit);
+    	
+    	final MainThread thread = getThread();
+    	
+    	if (thread != null)
+    		thread.setTickLimit(getTickLimit());
+    }
+    
+    /**
+     * Get the tick limit
+     * @return The most updates we will perform before rendering
+     */
+    public int getTickLimit()
+    {
+    	return this.tickLimit;
+    }
+    
+    /**
+     * Get the simulated frames
+     * @return The number of updates performed by the current game thread, 0 if there is no thread
+     */
+    public long getSimulatedFrames()
+    {
+    	final MainThread thread = getThread();
+    	
+    	return (thread != null) ? thread.getSimulatedFrames() : 0;
+    }
+    
+    /**
+     * Get the skipped frames
+     * @return The number of renders the current game thread skipped to catch up, 0 if there is no thread
+     */
+    public long getSkippedFrames()
+    {
+    	final MainThread thread = getThread();
+    	
+    	return (thread != null) ? thread.getSkippedFrames() : 0;
+    }
+    
+    /**
+     * Get the dropped frames
+     * @return The number of updates the current game thread dropped because it was too far behind, 0 if there is no thread
+     */
+    public long getDroppedFrames()
+    {
+    	final MainThread thread = getThread();
+    	
+    	return (thread != null) ? thread.getDroppedFrames() : 0;
+    }
+    
+    /**
+     * Get the bitmap bytes.<br>
+     * This counts every bitmap we keep: our assets, our atlas, the glyphs of our numbers, the layer of settled pieces, our composed numbers and the lower resolution buffer
+     * @return The number of bytes used by the live bitmaps
+     */
+    public long getBitmapBytes()
+    {
+    	final ScreenManager screen = getScreen();
+    	
+    	return Assets.getImageBytes() + ((screen != null) ? screen.getScreenGame().getBytes() : 0);
+    }
+    
+    /**
+     * Get the governor
+     * @return The object choosing the resolution we render the game layer at
+     */
+    public ResolutionGovernor getGovernor()
+    {
+    	return this.governor;
+    }
+    
+    /**
+     * Get the input
+     * @return The motion events waiting for the game thread, the event being handled can be read from here
+     */
+    public InputQueue getInput()
+    {
+    	return this.input;
+    }
+    
     /**
      * Get the screen manager 
      * @return The screen manager containing all our screens
@@ -151,12 +288,42 @@ public class GamePanel extends SurfaceView implements SurfaceHolder.Callback, Di
     }
     
     /**
-     * Flag that we have the screen ratio
-     * @param ratio true if we calculated the screen ratio, false otherwise
+     * The ratio of the users screen compared to the default dimensions.<br>
+     * The values never change, so a new ratio is created whenever the screen ratio is calculated
      */
-    private void setRatio(final boolean ratio)
+    private static final class Ratio
     {
-    	this.ratio = ratio;
+    	//the ratio for the motion event
+    	private final float motionX, motionY;
+    	
+    	//the ratio for the render
+    	private final float renderX, renderY;
+    	
+    	private Ratio(final float motionX, final float motionY, final float renderX, final float renderY)
+    	{
+    		this.motionX = motionX;
+    		this.motionY = motionY;
+    		this.renderX = renderX;
+    		this.renderY = renderY;
+    	}
+    	
+    	/**
+    	 * Do we need to scale the canvas?
+    	 * @return true if the render ratio is not 1, false if the display hardware scales our surface
+    	 */
+    	private boolean isScaled()
+    	{
+    		return (this.renderX != 1.0f || this.renderY != 1.0f);
+    	}
+    }
+    
+    /**
+     * Get the ratio
+     * @return The screen ratio, or null if we haven't calculated it yet
+     */
+    private Ratio getRatio()
+    {
+    	return this.ratio;
     }
     
     /**
@@ -165,7 +332,76 @@ public class GamePanel extends SurfaceView implements SurfaceHolder.Callback, Di
      */
     private boolean hasRatio()
     {
-    	return this.ratio;
+    	return (getRatio() != null);
+    }
+    
+    /**
+     * Assign the scale mode.<br>
+     * This needs to be called from the UI thread.<br>
+     * The size of our surface and the screen ratio will be updated right away, and the full screen images will be loaded again at the new size
+     * @param scaleMode How we want to scale our game to the size of the screen
+     */
+    public void setScaleMode(final ScaleMode scaleMode)
+    {
+    	this.scaleMode = scaleMode;
+    	
+    	//the size of our surface depends on the scale mode
+    	switch (scaleMode)
+    	{
+	    	case Hardware:
+	    		getHolder().setFixedSize(WIDTH, HEIGHT);
+	    		
+	    		//the full screen images are decoded at the size of our game
+	    		Assets.setSurfaceSize(WIDTH, HEIGHT);
+	    		break;
+	    		
+	    	case Software:
+	    	default:
+	    		getHolder().setSizeFromLayout();
+	    		
+	    		//the full screen images are decoded at the size of the view
+	    		Assets.setSurfaceSize(getWidth(), getHeight());
+	    		break;
+    	}
+    	
+    	//if the view has a size we can calculate the ratio again
+    	if (getWidth() > 0 && getHeight() > 0)
+    		calculateRatio();
+    }
+    
+    /**
+     * Get the scale mode
+     * @return How we scale our game to the size of the screen
+     */
+    public ScaleMode getScaleMode()
+    {
+    	return this.scaleMode;
+    }
+    
+    /**
+     * Calculate the screen ratio for our scale mode
+     */
+    private void calculateRatio()
+    {
+        //the motion events are always reported at the size of the view
+        final float motionX = (float)GamePanel.WIDTH / getWidth();
+        final float motionY = (float)GamePanel.HEIGHT / getHeight();
+        
+        switch (getScaleMode())
+        {
+	        case Hardware:
+	        	
+	        	//our surface is already the size of our game
+	        	this.ratio = new Ratio(motionX, motionY, 1.0f, 1.0f);
+	        	break;
+	        	
+	        case Software:
+	        default:
+	        	
+	            //store the ratio for the render
+	        	this.ratio = new Ratio(motionX, motionY, getWidth() / (float)GamePanel.WIDTH, getHeight() / (float)GamePanel.HEIGHT);
+	            break;
+        }
     }
     
     @Override
@@ -183,43 +419,46 @@ public class GamePanel extends SurfaceView implements SurfaceHolder.Callback, Di
     {
         try
         {
-            if (getScreen() != null)
+        	//we can't adjust the coordinates until we have the screen ratio
+        	final Ratio ratio = getRatio();
+        	
+        	if (ratio == null)
+        		return true;
+        	
+        	//in order to handle multiple motion events, we need to get the action of the current event
+        	final int actionIndex = event.getActionIndex();
+        	
+            //adjust the coordinates
+            final float x = event.getX(actionIndex) * ratio.motionX;
+            final float y = event.getY(actionIndex) * ratio.motionY;
+        	
+            //get the current action that was performed here
+            final int action = event.getActionMasked();
+            
+            switch (action)
             {
-            	//in order to handle multiple motion events, we need to get the action of the current event
-            	final int actionIndex = event.getActionIndex();
-            	
-                //adjust the coordinates
-                final float x = event.getX(actionIndex) * getScaleMotionX();
-                final float y = event.getY(actionIndex) * getScaleMotionY();
-            	
-                //get the current action that was performed here
-                final int action = event.getActionMasked();
-                
-                switch (action)
-                {
-	                case MotionEvent.ACTION_DOWN:
-	                	
-	                	//flag motion down occurred
-		            	down = true;
-		            	break;
-		            	
-	                case MotionEvent.ACTION_UP:
-	                	
-	                	//if we have previously action down
-	                	if (down)
-	                	{
-	                		//flag false
-	                		down = false;
-	                		
-	                    	//perform click
-	                    	performClick();
-	                	}
-	                	break;
-                }
-                
-                //update the screen/game etc.. with the specified motion events
-                getScreen().update(action, x, y);
+                case MotionEvent.ACTION_DOWN:
+                	
+                	//flag motion down occurred
+	            	down = true;
+	            	break;
+	            	
+                case MotionEvent.ACTION_UP:
+                	
+                	//if we have previously action down
+                	if (down)
+                	{
+                		//flag false
+                		down = false;
+                		
+                    	//perform click
+                    	performClick();
+                	}
+                	break;
             }
+            
+            //the game thread will update the screen/game etc.. with the motion event at the start of the next update
+            input.add(action, x, y, event.getEventTime() * Animation.NANO_SECONDS_PER_MILLISECOND);
         }
         catch (Exception e)
         {
@@ -246,6 +485,9 @@ public class GamePanel extends SurfaceView implements SurfaceHolder.Callback, Di
             //create new thread
     		this.thread = new MainThread(getHolder(), this);
             
+            //keep the tick limit we were given
+            getThread().setTickLimit(getTickLimit());
+            
             //start the thread
         	getThread().start();
             
@@ -254,18 +496,7 @@ public class GamePanel extends SurfaceView implements SurfaceHolder.Callback, Di
             
             //if we haven't calculated the ratio yet
             if (!hasRatio())
-            {
-	            //store the ratio for the motion event
-	            this.scaleMotionX = (float)GamePanel.WIDTH / getWidth();
-	            this.scaleMotionY = (float)GamePanel.HEIGHT / getHeight();
-	            
-	            //store the ratio for the render
-	            this.scaleRenderX = getWidth() / (float)GamePanel.WIDTH;
-	            this.scaleRenderY = getHeight() / (float)GamePanel.HEIGHT;
-	            
-	            //flag that we have the ratio
-	            setRatio(true);
-            }
+            	setScaleMode(getScaleMode());
         }
         catch (Exception e)
         {
@@ -304,7 +535,12 @@ public class GamePanel extends SurfaceView implements SurfaceHolder.Callback, Di
     @Override
     public void surfaceChanged(SurfaceHolder holder, int format, int width, int height)
     {
-        //does anything need to be done here?
+        //now we know the size of our surface, the full screen images are decoded to match it
+        Assets.setSurfaceSize(width, height);
+        
+        //the size of the view may have changed as well
+        if (getWidth() > 0 && getHeight() > 0)
+        	calculateRatio();
     }
     
     /**
@@ -317,11 +553,27 @@ public class GamePanel extends SurfaceView implements SurfaceHolder.Callback, Di
             //make sure the screen is created first before the thread starts
             if (getScreen() == null)
             {
+                //make sure the assets are loading, in case we didn't start from the splash screen
+                Assets.load(getActivity());
+                
+                //ignore any motion events while there is no screen to receive them
+                input.clear();
+                
+                //we can't create the screens until the menu assets are ready
+                if (!Assets.isReady(Assets.GROUPS_MENU))
+                	return;
+                
                 //create new screen manager
                 this.screen = new ScreenManager(this);
             }
             else
             {
+            	//update the screen/game etc.. with the motion events received since the previous update
+            	while (input.next())
+            	{
+            		getScreen().update(input.getAction(), input.getX(), input.getY());
+            	}
+            	
             	getScreen().update();
             }
         }
@@ -331,42 +583,6 @@ public class GamePanel extends SurfaceView implements SurfaceHolder.Callback, Di
         }
     }
     
-    /**
-     * Get the x scale factor for the motion event
-     * @return The x ratio of the user's width compared to the default width
-     */
-    private float getScaleMotionX()
-    {
-    	return this.scaleMotionX;
-    }
-    
-    /**
-     * Get the y scale factor for the motion event
-     * @return The y ratio of the user's height compared to the default height
-     */
-    private float getScaleMotionY()
-    {
-    	return this.scaleMotionY;
-    }
-
-    /**
-     * Get the x scale factor for the render
-     * @return The x ratio of the user's width compared to the default width
-     */
-    private float getScaleRenderX()
-    {
-    	return this.scaleRenderX;
-    }
-    
-    /**
-     * Get the y scale factor for the render
-     * @return The y ratio of the user's height compared to the default height
-     */
-    private float getScaleRenderY()
-    {
-    	return this.scaleRenderY;
-    }
-    
     @Override
     public void onDraw(Canvas canvas)
     {
@@ -378,8 +594,14 @@ public class GamePanel extends SurfaceView implements SurfaceHolder.Callback, Di
     {
         if (canvas != null)
         {
+        	//read the screen ratio once, so the whole frame uses the same ratio
+        	final Ratio ratio = getRatio();
+        	
+        	//if the display hardware scales our surface, we don't need to scale the canvas
+        	final boolean scale = (ratio != null && ratio.isScaled());
+        	
             //store the canvas state
-            final int savedState = canvas.save();
+            final int savedState = (scale) ? canvas.save() : 0;
             
             try
             {
@@ -387,7 +609,8 @@ public class GamePanel extends SurfaceView implements SurfaceHolder.Callback, Di
                 if (getScreen() != null)
                 {
                     //scale to the screen size
-                    canvas.scale(getScaleRenderX(), getScaleRenderY());
+                	if (scale)
+                		canvas.scale(ratio.renderX, ratio.renderY);
                 
                     //render the main screen containing the game and other screens
                     getScreen().render(canvas);
@@ -399,7 +622,8 @@ public class GamePanel extends SurfaceView implements SurfaceHolder.Callback, Di
             }
             
             //restore previous canvas state
-            canvas.restoreToCount(savedState);
+            if (scale)
+            	canvas.restoreToCount(savedState);
         }
     }
 }
\ No newline at end of file
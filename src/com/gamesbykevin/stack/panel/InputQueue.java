@@ -0,0 +1,147 @@
+package com.gamesbykevin.stack.panel;
+
+/**
+ * A fixed size queue of motion events passed from the UI thread to the game thread.<br>
+ * Only one thread may add events and only one thread may read them, so no locks are needed.<br>
+ * Every event is stored in preallocated arrays, so adding and reading never creates objects
+ * @author GOD
+ */
+public class InputQueue
+{
+	/**
+	 * The maximum number of events waiting to be read, must be a power of 2
+	 */
+	public static final int CAPACITY = 64;
+
+	//used to wrap our positions around the arrays
+	private static final int MASK = CAPACITY - 1;
+
+	//the action, coordinates and time of each event
+	private final int[] actions = new int[CAPACITY];
+	private final float[] xs = new float[CAPACITY];
+	private final float[] ys = new float[CAPACITY];
+	private final long[] times = new long[CAPACITY];
+
+	//the total number of events ever added, only written by the UI thread
+	private volatile int head = 0;
+
+	//the total number of events ever read, only written by the game thread
+	private volatile int tail = 0;
+
+	//the event most recently read
+	private int action;
+	private float x, y;
+	private long time;
+
+	//the number of events we didn't have room for
+	private volatile int dropped = 0;
+
+	/**
+	 * Add an event to the queue.<br>
+	 * This should only be called from the UI thread, and will never wait for the game thread
+	 * @param action The motion event action
+	 * @param x The x-coordinate
+	 * @param y The y-coordinate
+	 * @param time The time the event happened (nanoseconds)
+	 * @return true if the event was added, false if the queue is full and the event was dropped
+	 */
+	public boolean add(final int action, final float x, final float y, final long time)
+	{
+		final int head = this.head;
+
+		//if the queue is full, we can't overwrite events that haven't been read
+		if (head - this.tail >= CAPACITY)
+		{
+			this.dropped++;
+			return false;
+		}
+
+		final int index = head & MASK;
+		this.actions[index] = action;
+		this.xs[index] = x;
+		this.ys[index] = y;
+		this.times[index] = time;
+
+		//publish the event to the game thread
+		this.head = head + 1;
+		return true;
+	}
+
+	/**
+	 * Read the next event in the queue.<br>
+	 * This should only be called from the game thread, the event can then be read with getAction(), getX(), getY() and getTime()
+	 * @return true if an event was read, false if the queue is empty
+	 */
+	public boolean next()
+	{
+		final int tail = this.tail;
+
+		//if there are no events, there is nothing to read
+		if (tail == this.head)
+			return false;
+
+		final int index = tail & MASK;
+		this.action = this.actions[index];
+		this.x = this.xs[index];
+		this.y = this.ys[index];
+		this.time = this.times[index];
+
+		//the UI thread can now use this position again
+		this.tail = tail + 1;
+		return true;
+	}
+
+	/**
+	 * Remove every event waiting to be read.<br>
+	 * This should only be called from the game thread
+	 */
+	public void clear()
+	{
+		this.tail = this.head;
+	}
+
+	/**
+	 * Get the action
+	 * @return The motion event action of the event most recently read
+	 */
+	public int getAction()
+	{
+		return this.action;
+	}
+
+	/**
+	 * Get the x-coordinate
+	 * @return The x-coordinate of the event most recently read
+	 */
+	public float getX()
+	{
+		return this.x;
+	}
+
+	/**
+	 * Get the y-coordinate
+	 * @return The y-coordinate of the event most recently read
+	 */
+	public float getY()
+	{
+		return this.y;
+	}
+
+	/**
+	 * Get the time
+	 * @return The time the event most recently read happened, using the same time base as System.nanoTime() (nanoseconds)
+	 */
+	public long getTime()
+	{
+		return this.time;
+	}
+
+	/**
+	 * Get the dropped count
+	 * @return The number of events dropped because the queue was full
+	 */
+	public int getDropped()
+	{
+		return this.dropped;
+	}
+}
@@ -0,0 +1,167 @@
+package com.gamesbykevin.stack.panel;
+
+import com.gamesbykevin.stack.thread.MainThread;
+
+/**
+ * Chooses the resolution we render the game layer at, based on how long our recent frames took to render.<br>
+ * If the frames are too slow the resolution is lowered one step, and if they are fast enough it is raised one step.<br>
+ * The thresholds to lower and raise are far apart, and every change waits for a full window of new frames, so the resolution won't keep switching back and forth
+ * @author GOD
+ */
+public class ResolutionGovernor
+{
+	/**
+	 * Is the governor allowed to change the resolution by default?
+	 */
+	public static final boolean DEFAULT_ENABLED = true;
+
+	/**
+	 * The scale of each resolution step, from the full resolution down to the lowest
+	 */
+	public static final float[] SCALES = {1.0f, 0.85f, 0.7f, 0.6f, 0.5f};
+
+	/**
+	 * The number of frames we measure before deciding to change the resolution
+	 */
+	public static final int WINDOW = 30;
+
+	/**
+	 * If the average render time is above this ratio of our budget, we lower the resolution
+	 */
+	private static final float RATIO_LOWER = 0.9f;
+
+	/**
+	 * If the average render time is below this ratio of our budget, we raise the resolution
+	 */
+	private static final float RATIO_RAISE = 0.5f;
+
+	//the render time of each frame in our window (nanoseconds)
+	private final long[] samples = new long[WINDOW];
+
+	//the number of samples measured since the last change, and the position of the next sample
+	private int count = 0, index = 0;
+
+	//the total of the samples in our window (nanoseconds)
+	private long total = 0;
+
+	//the time we can spend rendering each frame (nanoseconds)
+	private long budget = MainThread.TICK_NANOS;
+
+	//the current resolution step
+	private volatile int level = 0;
+
+	//can we change the resolution
+	private boolean enabled = DEFAULT_ENABLED;
+
+	/**
+	 * Assign the budget
+	 * @param budget The time we can spend rendering each frame (nanoseconds)
+	 */
+	public void setBudget(final long budget)
+	{
+		this.budget = budget;
+	}
+
+	/**
+	 * Get the budget
+	 * @return The time we can spend rendering each frame (nanoseconds)
+	 */
+	public long getBudget()
+	{
+		return this.budget;
+	}
+
+	/**
+	 * Flag the governor enabled.<br>
+	 * If disabled, we go back to the full resolution
+	 * @param enabled true if we can change the resolution, false to always render at the full resolution
+	 */
+	public void setEnabled(final boolean enabled)
+	{
+		this.enabled = enabled;
+
+		if (!enabled)
+			setLevel(0);
+	}
+
+	/**
+	 * Is the governor enabled?
+	 * @return true if we can change the resolution, false otherwise
+	 */
+	public boolean isEnabled()
+	{
+		return this.enabled;
+	}
+
+	/**
+	 * Add the render time of a frame, and change the resolution if needed
+	 * @param nanos The time it took to render the frame (nanoseconds)
+	 */
+	public void add(final long nanos)
+	{
+		if (!isEnabled())
+			return;
+
+		//replace the oldest sample in our window
+		this.total += nanos - this.samples[this.index];
+		this.samples[this.index] = nanos;
+		this.index = (this.index + 1) % WINDOW;
+		this.count++;
+
+		//wait until we have a full window since the last change
+		if (this.count < WINDOW)
+			return;
+
+		//the average render time of our window
+		final long average = this.total / WINDOW;
+
+		if (average > this.budget * RATIO_LOWER && getLevel() < SCALES.length - 1)
+		{
+			//we are too slow, lower the resolution
+			setLevel(getLevel() + 1);
+		}
+		else if (average < this.budget * RATIO_RAISE && getLevel() > 0)
+		{
+			//we have plenty of time, raise the resolution
+			setLevel(getLevel() - 1);
+		}
+	}
+
+	/**
+	 * Assign the resolution step.<br>
+	 * Our window is cleared, so the new resolution will be measured on its own
+	 * @param level The resolution step, where 0 is the full resolution
+	 */
+	private void setLevel(final int level)
+	{
+		this.level = level;
+
+		//start measuring again
+		for (int i = 0; i < WINDOW; i++)
+		{
+			this.samples[i] = 0;
+		}
+
+		this.total = 0;
+		this.count = 0;
+		this.index = 0;
+	}
+
+	/**
+	 * Get the level
+	 * @return The current resolution step, where 0 is the full resolution
+	 */
+	public int getLevel()
+	{
+		return this.level;
+	}
+
+	/**
+	 * Get the scale
+	 * @return The scale of the current resolution ranging from 1.0 (full resolution) to the lowest step
+	 */
+	public float getScale()
+	{
+		return SCALES[getLevel()];
+	}
+}
@@ -0,0 +1,163 @@
+package com.gamesbykevin.stack.piece;
+
+import com.gamesbykevin.androidframework.resources.Disposable;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+
+/**
+ * Collects the sides of many pieces so they can be rendered with a single draw call.<br>
+ * Each side is split into two triangles, and the arrays are reused every frame.<br>
+ * The arrays are sized for every piece the pool keeps, so they don't grow during play
+ * @author GOD
+ */
+public class Batch implements Disposable
+{
+	/**
+	 * The number of vertices needed for each side (2 triangles)
+	 */
+	private static final int VERTICES_PER_SIDE = 6;
+	
+	/**
+	 * The order we visit the four corners of a side to create two triangles
+	 */
+	private static final int[] TRIANGLES = {0, 1, 2, 0, 2, 3};
+	
+	/**
+	 * The number of sides we have room for when first created.<br>
+	 * Every side the pool keeps, plus the extra strips when the top of each piece is split around the piece above
+	 */
+	private static final int DEFAULT_CAPACITY = Pool.SIDES_LIMIT + (Pool.PIECES_LIMIT * (Occlusion.STRIPS_LIMIT - 1));
+	
+	//the x,y coordinates of each vertex
+	private float[] vertices;
+	
+	//the color of each vertex
+	private int[] colors;
+	
+	//the number of values in the vertices array currently used
+	private int count = 0;
+	
+	//the paint object used to render the batch
+	private Paint paint;
+	
+	/**
+	 * Create an empty batch
+	 */
+	public Batch()
+	{
+		this.vertices = new float[DEFAULT_CAPACITY * VERTICES_PER_SIDE * 2];
+		
+		//the canvas checks the colors against the number of values, not vertices
+		this.colors = new int[this.vertices.length];
+		
+		this.paint = new Paint();
+	}
+	
+	/**
+	 * Remove all sides from the batch
+	 */
+	public void reset()
+	{
+		this.count = 0;
+	}
+	
+	/**
+	 * Is the batch empty?
+	 * @return true if no sides have been added since the last reset, false otherwise
+	 */
+	public boolean isEmpty()
+	{
+		return (this.count == 0);
+	}
+	
+	/**
+	 * Add a side to the batch
+	 * @param corners The corners of the side
+	 * @param outline The four corners that outline the side, in order
+	 * @param color The color of the side
+	 */
+	protected void add(final Corners corners, final int[] outline, final int color)
+	{
+		//make sure we have room
+		if (this.count + (VERTICES_PER_SIDE * 2) > this.vertices.length)
+			grow();
+		
+		for (int i = 0; i < TRIANGLES.length; i++)
+		{
+			//the corner of this vertex
+			final int corner = outline[TRIANGLES[i]];
+			
+			//assign the color and coordinates
+			this.colors[this.count / 2] = color;
+			this.vertices[this.count++] = corners.getX(corner);
+			this.vertices[this.count++] = corners.getY(corner);
+		}
+	}
+	
+	/**
+	 * Add a side to the batch
+	 * @param quad The x,y coordinates of the four corners that outline the side, in order
+	 * @param color The color of the side
+	 */
+	protected void add(final float[] quad, final int color)
+	{
+		//make sure we have room
+		if (this.count + (VERTICES_PER_SIDE * 2) > this.vertices.length)
+			grow();
+		
+		for (int i = 0; i < TRIANGLES.length; i++)
+		{
+			//the corner of this vertex
+			final int corner = TRIANGLES[i];
+			
+			//assign the color and coordinates
+			this.colors[this.count / 2] = color;
+			this.vertices[this.count++] = quad[corner * 2];
+			this.vertices[this.count++] = quad[corner * 2 + 1];
+		}
+	}
+	
+	/**
+	 * Double the room in our arrays, keeping the existing vertices.<br>
+	 * This should only happen if we render more pieces than the pool keeps
+	 */
+	private void grow()
+	{
+		final float[] vertices = new float[this.vertices.length * 2];
+		final int[] colors = new int[vertices.length];
+		
+		System.arraycopy(this.vertices, 0, vertices, 0, this.count);
+		System.arraycopy(this.colors, 0, colors, 0, this.count / 2);
+		
+		this.vertices = vertices;
+		this.colors = colors;
+	}
+	
+	/**
+	 * Render every side in the batch, in the order they were added
+	 * @param canvas The canvas to which we render pixel data
+	 */
+	public void render(final Canvas canvas)
+	{
+		//if there is nothing to render, don't continue
+		if (isEmpty())
+			return;
+		
+		canvas.drawVertices(
+			Canvas.VertexMode.TRIANGLES, 
+			this.count, this.vertices, 0, 
+			null, 0, 
+			this.colors, 0, 
+			null, 0, 0, 
+			this.paint);
+	}
+	
+	@Override
+	public void dispose()
+	{
+		this.vertices = null;
+		this.colors = null;
+		this.paint = null;
+	}
+}
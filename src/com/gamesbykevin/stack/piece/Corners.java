@@ -0,0 +1,193 @@
+package com.gamesbykevin.stack.piece;
+
+/**
+ * The screen coordinates of the eight corners of a piece boundary.<br>
+ * The corners are calculated once whenever the boundary or the piece location changes, and shared by each side with that boundary
+ * @author GOD
+ */
+public class Corners
+{
+	/**
+	 * The corners of the top of the boundary
+	 */
+	public static final int TOP_NW = 0, TOP_NE = 1, TOP_SE = 2, TOP_SW = 3;
+
+	/**
+	 * The corners of the bottom of the boundary
+	 */
+	public static final int BOTTOM_NW = 4, BOTTOM_NE = 5, BOTTOM_SE = 6, BOTTOM_SW = 7;
+
+	/**
+	 * The total number of corners
+	 */
+	public static final int TOTAL = 8;
+
+	//the x,y coordinates of each corner
+	private final float[] points = new float[TOTAL * 2];
+
+	//the boundaries of the corners
+	private float colW, colE, rowN, rowS;
+
+	//do we need to calculate the corners again?
+	private boolean dirty = true;
+
+	//the piece location and coordinates used the last time we calculated the corners
+	private double cacheCol, cacheRow, cacheX, cacheY;
+
+	//how many times have the corners been calculated
+	private int version = 0;
+
+	/**
+	 * Assign the boundary of the corners
+	 * @param colW the west most column
+	 * @param colE the east most column
+	 * @param rowN the north most row
+	 * @param rowS the south most row
+	 */
+	public void setBoundary(final float colW, final float colE, final float rowN, final float rowS)
+	{
+		//if the boundary changed, the corners need to be calculated again
+		if (this.colW != colW || this.colE != colE || this.rowN != rowN || this.rowS != rowS)
+			this.dirty = true;
+
+		this.colW = colW;
+		this.colE = colE;
+		this.rowN = rowN;
+		this.rowS = rowS;
+	}
+
+	/**
+	 * Clear the boundary so the corners can be used again
+	 */
+	public void reset()
+	{
+		setBoundary(0, 0, 0, 0);
+		
+		//make sure the corners are calculated again
+		this.dirty = true;
+	}
+	
+	/**
+	 * Get the west most column
+	 * @return The west most column of the boundary
+	 */
+	public float getColW()
+	{
+		return this.colW;
+	}
+
+	/**
+	 * Get the east most column
+	 * @return The east most column of the boundary
+	 */
+	public float getColE()
+	{
+		return this.colE;
+	}
+
+	/**
+	 * Get the north most row
+	 * @return The north most row of the boundary
+	 */
+	public float getRowN()
+	{
+		return this.rowN;
+	}
+
+	/**
+	 * Get the south most row
+	 * @return The south most row of the boundary
+	 */
+	public float getRowS()
+	{
+		return this.rowS;
+	}
+
+	/**
+	 * Does the boundary have any size?
+	 * @return true if there is no width or no height, false otherwise
+	 */
+	public boolean isEmpty()
+	{
+		return (this.colW - this.colE == 0 || this.rowN - this.rowS == 0);
+	}
+
+	/**
+	 * Calculate the corners at the render location of the piece, if anything changed since the last time
+	 * @param piece The piece the boundary belongs to
+	 */
+	public void update(final Piece piece)
+	{
+		//if nothing changed, no need to continue
+		if (!this.dirty &&
+			this.cacheCol == piece.getRenderCol() &&
+			this.cacheRow == piece.getRenderRow() &&
+			this.cacheX == piece.getX() &&
+			this.cacheY == piece.getY())
+			return;
+
+		//remember what we calculated the corners with
+		this.cacheCol = piece.getRenderCol();
+		this.cacheRow = piece.getRenderRow();
+		this.cacheX = piece.getX();
+		this.cacheY = piece.getY();
+		this.dirty = false;
+
+		//calculate the top corners
+		setCorner(TOP_NW, colW, rowN);
+		setCorner(TOP_NE, colE, rowN);
+		setCorner(TOP_SE, colE, rowS);
+		setCorner(TOP_SW, colW, rowS);
+
+		//the bottom corners are directly below the top corners
+		for (int corner = TOP_NW; corner <= TOP_SW; corner++)
+		{
+			points[(corner + BOTTOM_NW) * 2] = points[corner * 2];
+			points[(corner + BOTTOM_NW) * 2 + 1] = points[corner * 2 + 1] + PieceHelper.ROW_HEIGHT_RENDER;
+		}
+
+		//the corners have changed
+		this.version++;
+	}
+
+	/**
+	 * Calculate the coordinates of the top corner
+	 * @param corner The corner we are calculating
+	 * @param col The column of the corner
+	 * @param row The row of the corner
+	 */
+	private void setCorner(final int corner, final float col, final float row)
+	{
+		points[corner * 2] = Side.getLocationX(col + cacheCol, row + cacheRow, cacheX);
+		points[corner * 2 + 1] = Side.getLocationY(col + cacheCol, row + cacheRow, cacheY);
+	}
+
+	/**
+	 * Get the version
+	 * @return A number that changes every time the corners are calculated
+	 */
+	public int getVersion()
+	{
+		return this.version;
+	}
+
+	/**
+	 * Get the x-coordinate of the corner
+	 * @param corner The desired corner e.g. TOP_NW, BOTTOM_SE
+	 * @return The x-coordinate where the corner is rendered
+	 */
+	public float getX(final int corner)
+	{
+		return points[corner * 2];
+	}
+
+	/**
+	 * Get the y-coordinate of the corner
+	 * @param corner The desired corner e.g. TOP_NW, BOTTOM_SE
+	 * @return The y-coordinate where the corner is rendered
+	 */
+	public float getY(final int corner)
+	{
+		return points[corner * 2 + 1];
+	}
+}
@@ -0,0 +1,240 @@
+package com.gamesbykevin.stack.piece;
+
+import com.gamesbykevin.stack.piece.Side.Type;
+import com.gamesbykevin.stack.thread.MainThread;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Path;
+
+/**
+ * Renders a piece on the board without the part of its top that is covered by the piece above.<br>
+ * The piece above sits directly on top, so only the strips of the top outside its footprint are visible.<br>
+ * The east and south sides are never covered, they only share an edge with the sides of the piece above
+ * @author GOD
+ */
+public class Occlusion
+{
+	/**
+	 * The maximum number of strips of the top that can be visible around the piece above
+	 */
+	protected static final int STRIPS_LIMIT = 4;
+	
+	/**
+	 * The number of pixels covered by the area of a single column and row
+	 */
+	private static final float PIXELS_PER_CELL;
+	
+	static
+	{
+		//how far we move on screen for each column and row
+		final float colX = Side.getLocationX(1, 0, 0) - Side.getLocationX(0, 0, 0);
+		final float colY = Side.getLocationY(1, 0, 0) - Side.getLocationY(0, 0, 0);
+		final float rowX = Side.getLocationX(0, 1, 0) - Side.getLocationX(0, 0, 0);
+		final float rowY = Side.getLocationY(0, 1, 0) - Side.getLocationY(0, 0, 0);
+		
+		PIXELS_PER_CELL = Math.abs((colX * rowY) - (rowX * colY));
+	}
+	
+	//the boundary (west, east, north, south) of each visible strip
+	private final double[] strips = new double[STRIPS_LIMIT * 4];
+	
+	//the x,y coordinates of the four corners of a strip
+	private final float[] quad = new float[8];
+	
+	//the path used to render a strip when not using a batch
+	private final Path path = new Path();
+	
+	//the number of pixels we did not need to render
+	private long avoided = 0;
+	
+	/**
+	 * Reset the number of pixels avoided
+	 */
+	public void reset()
+	{
+		this.avoided = 0;
+	}
+	
+	/**
+	 * Get the pixels avoided
+	 * @return The number of pixels of the top sides we did not need to render since the last reset
+	 */
+	public long getAvoided()
+	{
+		return this.avoided;
+	}
+	
+	/**
+	 * Render the piece, skipping the part of the top covered by the piece above
+	 * @param canvas The canvas to which we render pixel data
+	 * @param batch The batch collecting the sides to render, or null if rendering each side as a path
+	 * @param piece The piece we want to render
+	 * @param above The piece placed directly on top of the piece we want to render
+	 * @throws Exception
+	 */
+	public void render(final Canvas canvas, final Batch batch, final Piece piece, final Piece above) throws Exception
+	{
+		//pieces on the board no longer move
+		piece.setRenderLocation(1.0f);
+		
+		for (int i = 0; i < piece.getSides().size(); i++)
+		{
+			final Side side = piece.getSides().get(i);
+			
+			//the top is the only side that can be covered
+			if (side.getType() == Type.Top && !side.isDead())
+			{
+				renderTop(canvas, batch, piece, side, above);
+			}
+			else if (batch != null)
+			{
+				side.render(batch, piece);
+			}
+			else
+			{
+				side.render(canvas, piece);
+			}
+		}
+	}
+	
+	/**
+	 * Render the strips of the top that are not covered by the piece above
+	 * @param canvas The canvas to which we render pixel data
+	 * @param batch The batch collecting the sides to render, or null if rendering each side as a path
+	 * @param piece The piece we want to render
+	 * @param side The top of the piece
+	 * @param above The piece placed directly on top of the piece we want to render
+	 * @throws Exception
+	 */
+	private void renderTop(final Canvas canvas, final Batch batch, final Piece piece, final Side side, final Piece above) throws Exception
+	{
+		//if there are no dimensions we won't render
+		if (side.getCorners().isEmpty())
+			return;
+		
+		//the footprint of the top
+		final double w = piece.getCol() + side.getCorners().getColW();
+		final double e = piece.getCol() + side.getCorners().getColE();
+		final double n = piece.getRow() + side.getCorners().getRowN();
+		final double s = piece.getRow() + side.getCorners().getRowS();
+		
+		//the piece above has its origin where we spawned it, so move its location into our grid
+		final double aboveCol = piece.getSpawnCol() + above.getCol();
+		final double aboveRow = piece.getSpawnRow() + above.getRow();
+		
+		//make sure the origin in our grid lands where the piece above is actually rendered
+		if (MainThread.DEBUG && Math.abs(Side.getLocationX(piece.getSpawnCol(), piece.getSpawnRow(), piece.getX()) - above.getX()) > 0.5f)
+			System.out.println("Occlusion origin of the piece above is out of place: " + Side.getLocationX(piece.getSpawnCol(), piece.getSpawnRow(), piece.getX()) + " vs " + above.getX());
+		
+		//the part of the top covered by the footprint of the piece above
+		final double coverW = Math.max(w, aboveCol + above.getCorners().getColW());
+		final double coverE = Math.min(e, aboveCol + above.getCorners().getColE());
+		final double coverN = Math.max(n, aboveRow + above.getCorners().getRowN());
+		final double coverS = Math.min(s, aboveRow + above.getCorners().getRowS());
+		
+		//the number of visible strips
+		int count = 0;
+		
+		if (above.getCorners().isEmpty() || coverW >= coverE || coverN >= coverS)
+		{
+			//nothing is covered, so the whole top is visible
+			count = setStrip(count, w, e, n, s);
+		}
+		else
+		{
+			//the full width strips north and south of the cover
+			if (coverN > n)
+				count = setStrip(count, w, e, n, coverN);
+			if (coverS < s)
+				count = setStrip(count, w, e, coverS, s);
+			
+			//the strips west and east of the cover, between the north and south strips
+			if (coverW > w)
+				count = setStrip(count, w, coverW, coverN, coverS);
+			if (coverE < e)
+				count = setStrip(count, coverE, e, coverN, coverS);
+			
+			//keep track of the pixels we won't render
+			this.avoided += (long)((coverE - coverW) * (coverS - coverN) * PIXELS_PER_CELL);
+		}
+		
+		//the color of the top
+		final int color = piece.getPalette().getColor(Type.Top, side.getAlpha());
+		
+		for (int i = 0; i < count; i++)
+		{
+			//calculate the corners of the strip
+			setQuad(i, piece);
+			
+			if (batch != null)
+			{
+				batch.add(this.quad, color);
+			}
+			else
+			{
+				this.path.reset();
+				this.path.moveTo(this.quad[0], this.quad[1]);
+				this.path.lineTo(this.quad[2], this.quad[3]);
+				this.path.lineTo(this.quad[4], this.quad[5]);
+				this.path.lineTo(this.quad[6], this.quad[7]);
+				this.path.close();
+				
+				//get the shared paint for the top
+				final Paint paint = Palette.getPaint(Type.Top);
+				paint.setColor(color);
+				canvas.drawPath(this.path, paint);
+			}
+		}
+	}
+	
+	/**
+	 * Assign the boundary of a strip
+	 * @param index The index of the strip
+	 * @param w The west most column
+	 * @param e The east most column
+	 * @param n The north most row
+	 * @param s The south most row
+	 * @return The number of strips after this one is assigned
+	 */
+	private int setStrip(final int index, final double w, final double e, final double n, final double s)
+	{
+		this.strips[index * 4] = w;
+		this.strips[index * 4 + 1] = e;
+		this.strips[index * 4 + 2] = n;
+		this.strips[index * 4 + 3] = s;
+		
+		return (index + 1);
+	}
+	
+	/**
+	 * Calculate the screen coordinates of the strip, in the same order as the outline of the top
+	 * @param index The index of the strip
+	 * @param piece The piece the strip belongs to
+	 */
+	private void setQuad(final int index, final Piece piece)
+	{
+		final double w = this.strips[index * 4];
+		final double e = this.strips[index * 4 + 1];
+		final double n = this.strips[index * 4 + 2];
+		final double s = this.strips[index * 4 + 3];
+		
+		setPoint(0, w, n, piece);
+		setPoint(1, e, n, piece);
+		setPoint(2, e, s, piece);
+		setPoint(3, w, s, piece);
+	}
+	
+	/**
+	 * Calculate the screen coordinates of a corner of the strip
+	 * @param point The index of the corner
+	 * @param col The column including the piece location
+	 * @param row The row including the piece location
+	 * @param piece The piece the strip belongs to
+	 */
+	private void setPoint(final int point, final double col, final double row, final Piece piece)
+	{
+		this.quad[point * 2] = Side.getLocationX(col, row, piece.getX());
+		this.quad[point * 2 + 1] = Side.getLocationY(col, row, piece.getY());
+	}
+}
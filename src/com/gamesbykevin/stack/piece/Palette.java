@@ -0,0 +1,161 @@
+package com.gamesbykevin.stack.piece;
+
+import com.gamesbykevin.stack.piece.Side.Type;
+
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Paint.Style;
+
+/**
+ * The shades of a piece color for each type of side.<br>
+ * Each color is only calculated once, and the paint objects are shared by every piece
+ * @author GOD
+ */
+public final class Palette
+{
+	/**
+	 * The factor at which to adjust the color for the east
+	 */
+	private static final float FACTOR_EAST = 0.5f;
+
+	/**
+	 * The factor at which to adjust the color for the south
+	 */
+	private static final float FACTOR_SOUTH = 0.75f;
+
+	/**
+	 * 100% visible
+	 */
+	private static final int OPAQUE = 255;
+
+	/**
+	 * The maximum number of different colors we keep
+	 */
+	private static final int CACHE_LIMIT = 16;
+
+	//the palettes that have already been calculated
+	private static final Palette[] CACHE = new Palette[CACHE_LIMIT];
+
+	//the number of palettes in our cache
+	private static int CACHE_SIZE = 0;
+
+	//the paint object shared for each type of side
+	private static final Paint[] PAINTS = new Paint[Type.values().length];
+
+	static
+	{
+		//create a fill paint for each type of side
+		for (int i = 0; i < PAINTS.length; i++)
+		{
+			PAINTS[i] = new Paint();
+			PAINTS[i].setStyle(Style.FILL);
+		}
+	}
+
+	//the color this palette was created from
+	private final int color;
+
+	//the color (without transparency) for each type of side
+	private final int[] shades = new int[Type.values().length];
+
+	/**
+	 * Create the palette
+	 * @param color The color of the piece
+	 */
+	private Palette(final int color)
+	{
+		this.color = color;
+
+		//calculate the shade for each type of side
+		for (Type type : Type.values())
+		{
+			switch (type)
+			{
+				case East:
+					shades[type.ordinal()] = shade(color, FACTOR_EAST);
+					break;
+
+				case South:
+					shades[type.ordinal()] = shade(color, FACTOR_SOUTH);
+					break;
+
+				//don't need to alter color of the roof
+				default:
+					shades[type.ordinal()] = shade(color, 1.0f);
+					break;
+			}
+		}
+	}
+
+	/**
+	 * Get the palette for the color.<br>
+	 * If the color has not been calculated yet, it will be now
+	 * @param color The color of the piece
+	 * @return The palette for the specified color
+	 */
+	public static Palette get(final int color)
+	{
+		//check if we already have this color
+		for (int i = 0; i < CACHE_SIZE; i++)
+		{
+			if (CACHE[i].color == color)
+				return CACHE[i];
+		}
+
+		//create the new palette
+		final Palette palette = new Palette(color);
+
+		//keep it if we have room
+		if (CACHE_SIZE < CACHE_LIMIT)
+			CACHE[CACHE_SIZE++] = palette;
+
+		return palette;
+	}
+
+	/**
+	 * Adjust the color
+	 * @param color The color we want to shade
+	 * @param factor The factor at which to adjust the color
+	 * @return The shaded color, without any transparency
+	 */
+	private static int shade(final int color, final float factor)
+	{
+		final int r = Math.min(Math.round(Color.red(color) * factor), 255);
+		final int g = Math.min(Math.round(Color.green(color) * factor), 255);
+		final int b = Math.min(Math.round(Color.blue(color) * factor), 255);
+
+		return Color.rgb(r, g, b) & 0x00FFFFFF;
+	}
+
+	/**
+	 * Get the color of the side
+	 * @param type The type of side
+	 * @param alpha The transparency ranging from 0 (0% visible) - 255 (100% visible)
+	 * @return The color to render the side with
+	 */
+	public int getColor(final Type type, final int alpha)
+	{
+		return (alpha << 24) | shades[type.ordinal()];
+	}
+
+	/**
+	 * Get the transparency of a side
+	 * @param progress How far the side has faded out ranging from 0.0 (not dead) - 1.0 (finished)
+	 * @return The transparency ranging from 0 (0% visible) - 255 (100% visible)
+	 */
+	public static int getAlpha(final float progress)
+	{
+		//make sure we stay in bounds
+		return (int)((1.0f - Math.max(0.0f, Math.min(1.0f, progress))) * OPAQUE);
+	}
+
+	/**
+	 * Get the paint object
+	 * @param type The type of side
+	 * @return The paint object shared by every side of this type
+	 */
+	public static Paint getPaint(final Type type)
+	{
+		return PAINTS[type.ordinal()];
+	}
+}
@@ -3,6 +3,7 @@ package com.gamesbykevin.stack.piece;
 import java.util.ArrayList;
 import java.util.List;
 
+import com.gamesbykevin.androidframework.anim.Animation;
 import com.gamesbykevin.androidframework.base.Entity;
 import com.gamesbykevin.androidframework.resources.Disposable;
 import com.gamesbykevin.stack.board.Board;
@@ -11,7 +12,6 @@ import com.gamesbykevin.stack.thread.MainThread;
 
 import android.graphics.Canvas;
 import android.graphics.Color;
-import android.graphics.Paint;
 
 /**
  * A single piece that we want to place on the board
@@ -39,20 +39,27 @@ public class Piece extends Entity implements Disposable
 	 */
 	public static final float DEFAULT_VELOCITY_NONE = 0.0f;
 	
+	/**
+	 * The distance the piece slides before bouncing back (columns or rows)
+	 */
+	private static final double SLIDE_RANGE = -2.0 * DEFAULT_START_POSITION;
+	
+	/**
+	 * How fast the piece slides (columns or rows per second)
+	 */
+	private static final double SLIDE_SPEED = DEFAULT_VELOCITY * MainThread.FPS;
+	
 	//do we stop moving the piece
 	private boolean stop = false;
 	
-	//our paint object used to add transparency to blocks
-	private Paint paint;
-	
 	//have we done the comparison yet
 	private boolean compare = false;
 	
 	//was or is the piece moving vertical?
-	private final boolean vertical;
+	private boolean vertical;
 	
 	//the total number of columns and rows that make up this piece
-	private final float cols, rows;
+	private float cols, rows;
 	
 	//once we compare pieces, what is the final size
 	private float colsFinal, rowsFinal;
@@ -60,12 +67,36 @@ public class Piece extends Entity implements Disposable
 	//the sides that make up the piece
 	private List<Side> sides;
 	
+	//the corners of the surviving part of the piece
+	private Corners corners;
+	
 	//when we separate the piece, where is the new x,y coordinates
 	private float spawnX, spawnY;
 	
+	//when we separate the piece, which column and row is the origin of the next piece
+	private double spawnCol, spawnRow;
+	
 	//the render color of this piece
 	private int color = Color.GREEN;
 	
+	//the shades of our color for each side
+	private Palette palette = Palette.get(Color.GREEN);
+	
+	//the location of the piece before the most recent update
+	private double previousCol, previousRow;
+	
+	//the time the current location is displayed on screen (nanoseconds)
+	private long time;
+	
+	//how long the piece has been sliding (nanoseconds)
+	private long elapsed;
+	
+	//the location where the piece is rendered, between the previous and current location
+	private double renderCol, renderRow;
+	
+	//is the piece waiting in the pool to be used again
+	private boolean pooled = false;
+	
 	/**
 	 * Create piece of default size, moving in a random direction
 	 */
@@ -89,13 +120,38 @@ public class Piece extends Entity implements Disposable
 	 * @param rows The number of rows that make up the piece
 	 */
 	public Piece(final float cols, final float rows, final boolean vertical) 
+	{
+		//create a new list containing the sides
+		this.sides = new ArrayList<Side>();
+		
+		//create the corners shared by the surviving sides
+		this.corners = new Corners();
+		
+		//assign the size, location and sides
+		init(cols, rows, vertical);
+	}
+	
+	/**
+	 * Assign the piece its starting state, so the same piece can be used again
+	 * @param cols The number of columns that make up the piece
+	 * @param rows The number of rows that make up the piece
+	 * @param vertical Is the piece moving vertical?
+	 */
+	protected void init(final float cols, final float rows, final boolean vertical)
 	{
 		//store the columns and rows
 		this.cols = cols;
 		this.rows = rows;
 		
-		//create a new paint object
-		this.paint = new Paint();
+		//the piece has not stopped or been compared yet
+		this.stop = false;
+		this.compare = false;
+		
+		//assign the default color
+		setColor(Color.GREEN);
+		
+		//the piece is in use
+		this.pooled = false;
 		
 		//assign default location
 		super.setCol(0);
@@ -116,6 +172,7 @@ public class Piece extends Entity implements Disposable
 		//assign default spawn location
 		this.setSpawnX(Side.getLocationX(0, 0, this));
 		this.setSpawnY(Side.getLocationY(0, 0, this));
+		this.setSpawn(getCol(), getRow());
 		
 		//determine if the piece
 		this.vertical = vertical;
@@ -132,8 +189,14 @@ public class Piece extends Entity implements Disposable
 			super.setDX(DEFAULT_VELOCITY);
 		}
 		
-		//create a new list containing the sides
-		this.sides = new ArrayList<Side>();
+		//there is no previous location yet
+		updatePrevious();
+		this.time = MainThread.getUpdateTime();
+		this.elapsed = 0;
+		
+		//remove any existing sides and reuse the corners
+		getSides().clear();
+		getCorners().reset();
 		
 		//create the sides
 		PieceHelper.createSides(this, 0, getCols(), 0, getRows(), false, false);
@@ -146,6 +209,7 @@ public class Piece extends Entity implements Disposable
 	public void setColor(final int color)
 	{
 		this.color = color;
+		this.palette = Palette.get(color);
 	}
 	
 	/**
@@ -157,6 +221,33 @@ public class Piece extends Entity implements Disposable
 		return this.color;
 	}
 	
+	/**
+	 * Get the palette
+	 * @return The shades of the render color for each side
+	 */
+	public Palette getPalette()
+	{
+		return this.palette;
+	}
+	
+	/**
+	 * Flag the piece as pooled
+	 * @param pooled true if the piece is waiting in the pool to be used again, false otherwise
+	 */
+	protected void setPooled(final boolean pooled)
+	{
+		this.pooled = pooled;
+	}
+	
+	/**
+	 * Is the piece pooled?
+	 * @return true if the piece is waiting in the pool to be used again, false otherwise
+	 */
+	protected boolean isPooled()
+	{
+		return this.pooled;
+	}
+	
 	/**
 	 * Get the sides
 	 * @return The list of sides that make up this piece
@@ -166,6 +257,16 @@ public class Piece extends Entity implements Disposable
 		return this.sides;
 	}
 	
+	/**
+	 * Get the corners.<br>
+	 * The corners are at the location where the piece was last rendered
+	 * @return The screen coordinates of the corners of the surviving part of the piece
+	 */
+	public Corners getCorners()
+	{
+		return this.corners;
+	}
+	
 	/**
 	 * Get the total starting columns
 	 * @return The starting total number of columns that makes up the piece
@@ -202,6 +303,35 @@ public class Piece extends Entity implements Disposable
 		this.spawnY = spawnY;
 	}
 	
+	/**
+	 * Assign the spawn column and row
+	 * @param spawnCol The column where the next piece will have its origin, including our location
+	 * @param spawnRow The row where the next piece will have its origin, including our location
+	 */
+	public void setSpawn(final double spawnCol, final double spawnRow)
+	{
+		this.spawnCol = spawnCol;
+		this.spawnRow = spawnRow;
+	}
+	
+	/**
+	 * Get the spawn column
+	 * @return The column where the next piece has its origin, in the same grid as our location
+	 */
+	public double getSpawnCol()
+	{
+		return this.spawnCol;
+	}
+	
+	/**
+	 * Get the spawn row
+	 * @return The row where the next piece has its origin, in the same grid as our location
+	 */
+	public double getSpawnRow()
+	{
+		return this.spawnRow;
+	}
+	
 	/**
 	 * Get the spawn x-coordinate
 	 * @return The x-coordinate where we want to spawn our next piece
@@ -220,6 +350,16 @@ public class Piece extends Entity implements Disposable
 		return this.spawnY;
 	}
 	
+	/**
+	 * Get the top y-coordinate
+	 * @return The highest y-coordinate of the piece, no part of the piece is rendered above this
+	 */
+	public float getTopY()
+	{
+		//the piece boundaries are never negative, so the first corner is the highest
+		return Side.getLocationY(0, 0, this);
+	}
+	
 	/**
 	 * Assign the final columns
 	 * @param colsFinal The total number of surviving columns
@@ -261,7 +401,7 @@ public class Piece extends Entity implements Disposable
 	{
 		super.dispose();
 		
-		this.paint = null;
+		this.corners = null;
 		
 		if (this.sides != null)
 		{
@@ -279,6 +419,37 @@ public class Piece extends Entity implements Disposable
 		}
 	}
 	
+	/**
+	 * Remember the current location, so the render can interpolate from here to the next update
+	 */
+	private void updatePrevious()
+	{
+		this.previousCol = getCol();
+		this.previousRow = getRow();
+		
+		//until we render, draw at the current location
+		this.renderCol = getCol();
+		this.renderRow = getRow();
+	}
+	
+	/**
+	 * Get the render column
+	 * @return The column where the piece is currently rendered
+	 */
+	public double getRenderCol()
+	{
+		return this.renderCol;
+	}
+	
+	/**
+	 * Get the render row
+	 * @return The row where the piece is currently rendered
+	 */
+	public double getRenderRow()
+	{
+		return this.renderRow;
+	}
+	
 	/**
 	 * Flag the piece to stop moving
 	 */
@@ -291,6 +462,70 @@ public class Piece extends Entity implements Disposable
         	System.out.println("Col = " + getCol() + ", Row = " + getRow());
 	}
 	
+	/**
+	 * Flag the piece to stop moving at the location displayed on screen at the specified time.<br>
+	 * The piece is rewound at most to its previous location, or moved ahead at most one update
+	 * @param time The time the player wanted the piece to stop, e.g. the time of the touch event (nanoseconds)
+	 */
+	public void stop(final long time)
+	{
+		//place the piece exactly where it was displayed at that time
+		setSlide(getElapsed(time - this.time));
+		
+		//render at the location we stopped
+		updatePrevious();
+		
+		stop();
+	}
+	
+	/**
+	 * Get the elapsed time relative to our current location.<br>
+	 * Our current location is displayed at the time of the most recent update, so the stop and render both use this to look up the location on screen
+	 * @param offset The time from when our current location is displayed, limited to one update either way (nanoseconds)
+	 * @return How long the piece has been sliding at that time (nanoseconds)
+	 */
+	private long getElapsed(final long offset)
+	{
+		return Math.max(0, this.elapsed + Math.max(-MainThread.TICK_NANOS, Math.min(MainThread.TICK_NANOS, offset)));
+	}
+	
+	/**
+	 * Place the piece where it is after sliding for the specified time
+	 * @param elapsed How long the piece has been sliding (nanoseconds)
+	 */
+	private void setSlide(final long elapsed)
+	{
+		this.elapsed = elapsed;
+		
+		if (hasVerticalVelocity())
+		{
+			setRow(getSlide(elapsed));
+		}
+		else
+		{
+			setCol(getSlide(elapsed));
+		}
+	}
+	
+	/**
+	 * Get the slide location.<br>
+	 * The piece slides from the start position to the opposite side and back again at a constant speed, 
+	 * so the location follows a triangle wave and can be calculated for any time
+	 * @param elapsed How long the piece has been sliding (nanoseconds)
+	 * @return The column or row the piece is at
+	 */
+	private static double getSlide(final long elapsed)
+	{
+		//the total distance traveled
+		final double distance = SLIDE_SPEED * elapsed / Animation.NANO_SECONDS_PER_SECOND;
+		
+		//how far we are into the current trip there and back
+		final double phase = distance % (SLIDE_RANGE * 2);
+		
+		//on the way there, or on the way back
+		return DEFAULT_START_POSITION + ((phase <= SLIDE_RANGE) ? phase : (SLIDE_RANGE * 2) - phase);
+	}
+	
 	/**
 	 * Has the piece been flagged to stop moving
 	 * @return true = yes, false otherwise
@@ -325,18 +560,17 @@ public class Piece extends Entity implements Disposable
 	 */
 	public void update(final Board board)
 	{
+		//remember where we were for the render
+		updatePrevious();
+		
 		//if the piece has not stopped update the location
 		if (!hasStop())
 		{
 			//update the location of the piece
-			setCol(getCol() + getDX());
-			setRow(getRow() + getDY());
+			setSlide(this.elapsed + MainThread.TICK_NANOS);
 			
-			//make sure we stay in bounds
-			if (getCol() < DEFAULT_START_POSITION || getCol() > -DEFAULT_START_POSITION)
-				setDX(-getDX());
-			if (getRow() < DEFAULT_START_POSITION || getRow() > -DEFAULT_START_POSITION)
-				setDY(-getDY());
+			//remember when we were at this location
+			this.time = MainThread.getUpdateTime();
 		}
 		else
 		{
@@ -362,8 +596,8 @@ public class Piece extends Entity implements Disposable
 						
 						if (getSides().get(i).hasDeadCompleted())
 						{
-							//remove the object
-							getSides().remove(i);
+							//remove the object and return it to the pool
+							Pool.free(getSides().remove(i));
 							
 							//move the index back
 							i--;
@@ -382,14 +616,70 @@ public class Piece extends Entity implements Disposable
 	@Override
 	public void render(final Canvas canvas) throws Exception
 	{
-		//skip if it won't even be rendered on screen
-		if (getY() > GamePanel.HEIGHT)
-			return;
+		//render the piece at the current location
+		render(canvas, 1.0f);
+	}
+	
+	/**
+	 * Render the piece between the previous and current location
+	 * @param canvas Object used to render pixels
+	 * @param interpolation How far (0.0 - 1.0) we are from the previous update to the current update
+	 * @throws Exception
+	 */
+	public void render(final Canvas canvas, final float interpolation) throws Exception
+	{
+		//calculate where we are between the previous and current location
+		setRenderLocation(interpolation);
 		
 		//render all sides of the piece
 		for (int i = 0; i < this.sides.size(); i++)
 		{
-			this.sides.get(i).render(canvas, paint, this, getColor());
+			this.sides.get(i).render(canvas, this);
+		}
+	}
+	
+	/**
+	 * Add all sides of the piece to the batch between the previous and current update
+	 * @param batch The batch collecting the sides to render
+	 * @param interpolation How far (0.0 - 1.0) we are from the previous update to the current update
+	 * @throws Exception
+	 */
+	public void render(final Batch batch, final float interpolation) throws Exception
+	{
+		//calculate where we are between the previous and current location
+		setRenderLocation(interpolation);
+		
+		//add all sides of the piece
+		for (int i = 0; i < this.sides.size(); i++)
+		{
+			this.sides.get(i).render(batch, this);
+		}
+	}
+	
+	/**
+	 * Calculate the render location between the previous and current location
+	 * @param interpolation How far (0.0 - 1.0) we are from the previous update to the current update
+	 */
+	protected void setRenderLocation(final float interpolation)
+	{
+		if (interpolation < 1.0f && !hasStop())
+		{
+			//this frame is displayed before our current location by the part of the update we have not reached yet,
+			//the same timeline stop() uses, so the piece stops exactly where it is drawn even if we bounced in between
+			final double slide = getSlide(getElapsed(-(long)(MainThread.TICK_NANOS * (1.0f - interpolation))));
+			
+			this.renderCol = hasVerticalVelocity() ? getCol() : slide;
+			this.renderRow = hasVerticalVelocity() ? slide : getRow();
+		}
+		else if (interpolation < 1.0f)
+		{
+			this.renderCol = this.previousCol + ((getCol() - this.previousCol) * interpolation);
+			this.renderRow = this.previousRow + ((getRow() - this.previousRow) * interpolation);
+		}
+		else
+		{
+			this.renderCol = getCol();
+			this.renderRow = getRow();
 		}
 	}
 }
\ No newline at end of file
@@ -179,6 +179,7 @@ public class PieceHelper
 		//set the spawn location of the piece, so we know where to spawn the next piece
 		piece1.setSpawnX(Side.getLocationX(surviveColW, surviveRowN, piece1));
 		piece1.setSpawnY(Side.getLocationY(surviveColW, surviveRowN, piece1));
+		piece1.setSpawn(piece1.getCol() + surviveColW, piece1.getRow() + surviveRowN);
 	}
 	
 	/**
@@ -193,9 +194,12 @@ public class PieceHelper
 	 */
 	protected static void createSides(final Piece piece, final float colW, final float colE, final float rowN, final float rowS, final boolean dead, final boolean first)
 	{
-		Side top = new Side(Type.Top);
-		Side east = new Side(Type.East);
-		Side south = new Side(Type.South);
+		//dead sides have their own boundary, otherwise share the corners of the piece
+		final Corners corners = (dead) ? Pool.obtainCorners() : piece.getCorners();
+		
+		Side top = Pool.obtainSide(Type.Top, corners);
+		Side east = Pool.obtainSide(Type.East, corners);
+		Side south = Pool.obtainSide(Type.South, corners);
 		
 		//set the boundaries of the current side
 		top.setBoundary(colW, colE, rowN, rowS);
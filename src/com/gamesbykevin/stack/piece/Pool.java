@@ -0,0 +1,163 @@
+package com.gamesbykevin.stack.piece;
+
+import java.util.ArrayList;
+
+import com.gamesbykevin.stack.panel.GamePanel;
+import com.gamesbykevin.stack.piece.Side.Type;
+
+/**
+ * Keeps the pieces, sides and corners we are done with so they can be used again.<br>
+ * Once the pool has warmed up, placing a piece no longer creates any new objects
+ * @author GOD
+ */
+public final class Pool
+{
+	/**
+	 * The maximum number of pieces we keep
+	 */
+	protected static final int PIECES_LIMIT = 64;
+	
+	/**
+	 * The maximum number of sides we keep
+	 */
+	protected static final int SIDES_LIMIT = PIECES_LIMIT * 6;
+	
+	/**
+	 * The maximum number of corners we keep
+	 */
+	private static final int CORNERS_LIMIT = PIECES_LIMIT;
+	
+	//the objects waiting to be used again
+	private static final ArrayList<Piece> PIECES = new ArrayList<Piece>(PIECES_LIMIT);
+	private static final ArrayList<Side> SIDES = new ArrayList<Side>(SIDES_LIMIT);
+	private static final ArrayList<Corners> CORNERS = new ArrayList<Corners>(CORNERS_LIMIT);
+	
+	private Pool()
+	{
+		//we don't create this object
+	}
+	
+	/**
+	 * Get a piece of default size, moving in a random direction
+	 * @return A piece from the pool, or a new piece if the pool is empty
+	 */
+	public static Piece obtainPiece()
+	{
+		return obtainPiece(Piece.DEFAULT_SIZE, Piece.DEFAULT_SIZE, GamePanel.RANDOM.nextBoolean());
+	}
+	
+	/**
+	 * Get a piece the same size as the specified piece, moving in the other direction
+	 * @param piece The piece we want to copy
+	 * @return A piece from the pool, or a new piece if the pool is empty
+	 */
+	public static Piece obtainPiece(final Piece piece)
+	{
+		return obtainPiece(piece.getColsFinal(), piece.getRowsFinal(), !piece.hasVerticalVelocity());
+	}
+	
+	/**
+	 * Get a piece
+	 * @param cols The number of columns that make up the piece
+	 * @param rows The number of rows that make up the piece
+	 * @param vertical Is the piece moving vertical?
+	 * @return A piece from the pool, or a new piece if the pool is empty
+	 */
+	public static Piece obtainPiece(final float cols, final float rows, final boolean vertical)
+	{
+		//if there is nothing in the pool, create a new piece
+		if (PIECES.isEmpty())
+			return new Piece(cols, rows, vertical);
+		
+		//get the most recent piece returned
+		final Piece piece = PIECES.remove(PIECES.size() - 1);
+		
+		//assign the starting state
+		piece.init(cols, rows, vertical);
+		
+		return piece;
+	}
+	
+	/**
+	 * Return the piece and its sides to the pool.<br>
+	 * If the piece is already in the pool nothing will happen
+	 * @param piece The piece we no longer need
+	 */
+	public static void free(final Piece piece)
+	{
+		//we don't want the piece in the pool twice
+		if (piece == null || piece.isPooled())
+			return;
+		
+		//return the sides of the piece
+		for (int i = 0; i < piece.getSides().size(); i++)
+		{
+			free(piece.getSides().get(i));
+		}
+		
+		piece.getSides().clear();
+		
+		//flag the piece as pooled
+		piece.setPooled(true);
+		
+		//keep the piece if we have room
+		if (PIECES.size() < PIECES_LIMIT)
+			PIECES.add(piece);
+	}
+	
+	/**
+	 * Get a side
+	 * @param type The type of side
+	 * @param corners The corners of the boundary this side belongs to
+	 * @return A side from the pool, or a new side if the pool is empty
+	 */
+	protected static Side obtainSide(final Type type, final Corners corners)
+	{
+		//if there is nothing in the pool, create a new side
+		if (SIDES.isEmpty())
+			return new Side(type, corners);
+		
+		//get the most recent side returned
+		final Side side = SIDES.remove(SIDES.size() - 1);
+		
+		//assign the starting state
+		side.init(type, corners);
+		
+		return side;
+	}
+	
+	/**
+	 * Return the side to the pool.<br>
+	 * Each set of dead sides has its own corners, which are returned along with the top
+	 * @param side The side we no longer need
+	 */
+	protected static void free(final Side side)
+	{
+		//the corners of the dead sides are returned once
+		if (side.isDead() && side.getType() == Type.Top && CORNERS.size() < CORNERS_LIMIT)
+			CORNERS.add(side.getCorners());
+		
+		//keep the side if we have room
+		if (SIDES.size() < SIDES_LIMIT)
+			SIDES.add(side);
+	}
+	
+	/**
+	 * Get corners
+	 * @return Corners from the pool, or new corners if the pool is empty
+	 */
+	protected static Corners obtainCorners()
+	{
+		//if there is nothing in the pool, create new corners
+		if (CORNERS.isEmpty())
+			return new Corners();
+		
+		//get the most recent corners returned
+		final Corners corners = CORNERS.remove(CORNERS.size() - 1);
+		
+		//clear the boundary
+		corners.reset();
+		
+		return corners;
+	}
+}
@@ -1,12 +1,13 @@
 package com.gamesbykevin.stack.piece;
 
+import com.gamesbykevin.androidframework.anim.Animation;
 import com.gamesbykevin.androidframework.resources.Disposable;
 import com.gamesbykevin.stack.thread.MainThread;
+import com.gamesbykevin.stack.tween.Easing;
+import com.gamesbykevin.stack.tween.Tween;
 
 import android.graphics.Canvas;
-import android.graphics.Color;
 import android.graphics.Paint;
-import android.graphics.Paint.Style;
 import android.graphics.Path;
 
 /**
@@ -27,46 +28,68 @@ public class Side extends Path implements Disposable
 	}
 	
 	//which type of side is this
-	private final Type type;
+	private Type type;
 	
 	//is this side flagged as dead?
 	private boolean dead = false;
 	
-	//how many frames has this side been dead
-	private float frames = 0;
+	//fades the side out once it is dead
+	private final Tween fade = new Tween();
 	
 	/**
-	 * How many frames is this side allowed to be dead (visible)
+	 * The corners that outline the top of the boundary
 	 */
-	private static final float FRAMES_LIMIT = (MainThread.FPS / 5);
+	private static final int[] OUTLINE_TOP = {Corners.TOP_NW, Corners.TOP_NE, Corners.TOP_SE, Corners.TOP_SW};
 	
 	/**
-	 * The factor at which to adjust the color for the east
+	 * The corners that outline the east of the boundary
 	 */
-	private static final float FACTOR_EAST = 0.5f;
+	private static final int[] OUTLINE_EAST = {Corners.TOP_NE, Corners.BOTTOM_NE, Corners.BOTTOM_SE, Corners.TOP_SE};
 	
 	/**
-	 * The factor at which to adjust the color for the south
+	 * The corners that outline the south of the boundary
 	 */
-	private static final float FACTOR_SOUTH = 0.75f;
+	private static final int[] OUTLINE_SOUTH = {Corners.TOP_SW, Corners.TOP_SE, Corners.BOTTOM_SE, Corners.BOTTOM_SW};
 	
 	/**
-	 * 100% visible
+	 * How long is this side visible once dead (nanoseconds)
 	 */
-	private static final int OPAQUE = 255;
+	protected static final long DEAD_DURATION = (Animation.NANO_SECONDS_PER_SECOND / 5);
 
-	//the boundaries of this side
-	private float colW, colE, rowN, rowS;	
+	//the corners of the boundary, shared with the other sides of the same boundary
+	private Corners corners;
+	
+	//the version of the corners the path was last calculated with
+	private int version = -1;
 	
 	/**
 	 * Default Constructor
+	 * @param type The type of side
+	 * @param corners The corners of the boundary this side belongs to
 	 */
-	public Side(final Type type) 
+	public Side(final Type type, final Corners corners) 
 	{
 		//call parent constructor
 		super();
 		
+		//assign the type and corners
+		init(type, corners);
+	}
+	
+	/**
+	 * Assign the side its starting state, so the same side can be used again
+	 * @param type The type of side
+	 * @param corners The corners of the boundary this side belongs to
+	 */
+	protected void init(final Type type, final Corners corners)
+	{
 		this.type = type;
+		this.corners = corners;
+		this.dead = false;
+		this.fade.reset();
+		
+		//make sure the path is calculated again
+		this.version = -1;
 	}
 	
 	/**
@@ -78,10 +101,16 @@ public class Side extends Path implements Disposable
 	 */
 	public void setBoundary(final float colW, final float colE, final float rowN, final float rowS)
 	{
-		this.colW = colW;
-		this.colE = colE;
-		this.rowN = rowN;
-		this.rowS = rowS;
+		getCorners().setBoundary(colW, colE, rowN, rowS);
+	}
+	
+	/**
+	 * Get the corners
+	 * @return The corners of the boundary this side belongs to
+	 */
+	public Corners getCorners()
+	{
+		return this.corners;
 	}
 	
 	/**
@@ -90,6 +119,9 @@ public class Side extends Path implements Disposable
 	public void flagDead()
 	{
 		this.dead = true;
+		
+		//start fading out
+		this.fade.start(0.0f, 1.0f, DEAD_DURATION, Easing.Linear);
 	}
 	
 	/**
@@ -117,50 +149,73 @@ public class Side extends Path implements Disposable
 	}
 	
 	/**
-	 * Calculate the coordinates of the side
-	 * @param piece The piece object used for reference when calculating coordinates
-	 * @throws Exception
+	 * Get the outline
+	 * @return The four corners that outline this side, in order
+	 * @throws Exception If the type of side is not handled
 	 */
-	private void calculate(final Piece piece) throws Exception
+	protected int[] getOutline() throws Exception
 	{
-		//reset all existing points
-		super.reset();
-		
-		//assign the coordinates accordingly
 		switch (getType())
 		{
 			case Top:
-				super.moveTo(getLocationX(colW, rowN, piece), getLocationY(colW, rowN, piece));
-				super.lineTo(getLocationX(colW, rowN, piece), getLocationY(colW, rowN, piece));
-				super.lineTo(getLocationX(colE, rowN, piece), getLocationY(colE, rowN, piece));
-				super.lineTo(getLocationX(colE, rowS, piece), getLocationY(colE, rowS, piece));
-				super.lineTo(getLocationX(colW, rowS, piece), getLocationY(colW, rowS, piece));
-				super.lineTo(getLocationX(colW, rowN, piece), getLocationY(colW, rowN, piece));
-				break;
+				return OUTLINE_TOP;
 				
 			case East:
-				super.moveTo(getLocationX(colE, rowN, piece), getLocationY(colE, rowN, piece));
-				super.lineTo(getLocationX(colE, rowN, piece), getLocationY(colE, rowN, piece));
-				super.lineTo(getLocationX(colE, rowN, piece), getLocationY(colE, rowN, piece) + PieceHelper.ROW_HEIGHT_RENDER);
-				super.lineTo(getLocationX(colE, rowS, piece), getLocationY(colE, rowS, piece) + PieceHelper.ROW_HEIGHT_RENDER);
-				super.lineTo(getLocationX(colE, rowS, piece), getLocationY(colE, rowS, piece));
-				super.lineTo(getLocationX(colE, rowN, piece), getLocationY(colE, rowN, piece));
-				break;
+				return OUTLINE_EAST;
 				
 			case South:
-				super.moveTo(getLocationX(colW, rowS, piece), getLocationY(colW, rowS, piece));
-				super.lineTo(getLocationX(colW, rowS, piece), getLocationY(colW, rowS, piece));
-				super.lineTo(getLocationX(colE, rowS, piece), getLocationY(colE, rowS, piece));
-				super.lineTo(getLocationX(colE, rowS, piece), getLocationY(colE, rowS, piece) + PieceHelper.ROW_HEIGHT_RENDER);
-				super.lineTo(getLocationX(colW, rowS, piece), getLocationY(colW, rowS, piece) + PieceHelper.ROW_HEIGHT_RENDER);
-				super.lineTo(getLocationX(colW, rowS, piece), getLocationY(colW, rowS, piece));
-				break;
+				return OUTLINE_SOUTH;
 				
 			default:
 				throw new Exception("Type not handled here: " + getType().toString());
 		}
 	}
 	
+	/**
+	 * Calculate the coordinates of the side from the corners
+	 * @throws Exception
+	 */
+	private void calculate() throws Exception
+	{
+		//reset all existing points
+		super.reset();
+		
+		//get the corners that outline this side
+		final int[] outline = getOutline();
+		
+		//trace the outline
+		moveTo(outline[0]);
+		
+		for (int i = 1; i < outline.length; i++)
+		{
+			lineTo(outline[i]);
+		}
+		
+		//close the shape
+		super.close();
+		
+		//remember what we calculated the side with
+		this.version = getCorners().getVersion();
+	}
+	
+	/**
+	 * Start the path at the specified corner
+	 * @param corner The desired corner
+	 */
+	private void moveTo(final int corner)
+	{
+		super.moveTo(getCorners().getX(corner), getCorners().getY(corner));
+	}
+	
+	/**
+	 * Add a line from the last point to the specified corner
+	 * @param corner The desired corner
+	 */
+	private void lineTo(final int corner)
+	{
+		super.lineTo(getCorners().getX(corner), getCorners().getY(corner));
+	}
+	
 	/**
 	 * Get the x-coordinate location
 	 * @param col
@@ -170,10 +225,22 @@ public class Side extends Path implements Disposable
 	 */
 	protected static float getLocationX(final double col, final double row, final Piece piece)
 	{
-		final float adjustCol = (float) (col + piece.getCol());
-		final float adjustRow = (float) (row + piece.getRow());
+		return getLocationX(col + piece.getCol(), row + piece.getRow(), piece.getX());
+	}
+	
+	/**
+	 * Get the x-coordinate location
+	 * @param col The column including the piece location
+	 * @param row The row including the piece location
+	 * @param x The x-coordinate of the piece
+	 * @return the x-coordinate
+	 */
+	protected static float getLocationX(final double col, final double row, final double x)
+	{
+		final float adjustCol = (float) col;
+		final float adjustRow = (float) row;
 		
-		return (float) (((adjustCol - adjustRow) * (PieceHelper.COLUMN_WIDTH / 2)) + piece.getX());
+		return (float) (((adjustCol - adjustRow) * (PieceHelper.COLUMN_WIDTH / 2)) + x);
 	}
 	
 	/**
@@ -185,95 +252,102 @@ public class Side extends Path implements Disposable
 	 */
 	protected static float getLocationY(final double col, final double row, final Piece piece)
 	{
-		final float adjustCol = (float) (col + piece.getCol());
-		final float adjustRow = (float) (row + piece.getRow());
+		return getLocationY(col + piece.getCol(), row + piece.getRow(), piece.getY());
+	}
+	
+	/**
+	 * Get the y-coordinate location
+	 * @param col The column including the piece location
+	 * @param row The row including the piece location
+	 * @param y The y-coordinate of the piece
+	 * @return the y-coordinate
+	 */
+	protected static float getLocationY(final double col, final double row, final double y)
+	{
+		final float adjustCol = (float) col;
+		final float adjustRow = (float) row;
 		
-		return (float) (((adjustCol + adjustRow) * (PieceHelper.ROW_HEIGHT / 4)) + piece.getY());
-	}	
+		return (float) (((adjustCol + adjustRow) * (PieceHelper.ROW_HEIGHT / 4)) + y);
+	}
 	
 	/**
-	 * Update the frame progression, if dead
+	 * Update the fade out, if dead
 	 */
 	public void update()
 	{
-		if (isDead() && this.frames < FRAMES_LIMIT)
-			this.frames++;
+		if (isDead())
+			this.fade.update(MainThread.TICK_NANOS);
 	}
 	
 	/**
 	 * Has the dead side finished its animation
-	 * @return true if flagged dead and frames meet/exceed frame limit, false otherwise
+	 * @return true if flagged dead and the fade out has finished, false otherwise
 	 */
 	protected boolean hasDeadCompleted()
 	{
-		return (isDead() && this.frames >= FRAMES_LIMIT);
+		return (isDead() && this.fade.isFinished());
+	}
+	
+	/**
+	 * Get the transparency
+	 * @return The transparency of the side ranging from 0 (0% visible) - 255 (100% visible)
+	 */
+	protected int getAlpha()
+	{
+		return Palette.getAlpha(isDead() ? this.fade.getValue() : 0.0f);
 	}
 	
 	/**
 	 * Render the side
 	 * @param canvas
-	 * @param paint
 	 * @param piece
-	 * @param color
 	 * @throws Exception
 	 */
-	public void render(final Canvas canvas, final Paint paint, final Piece piece, final int color) throws Exception
+	public void render(final Canvas canvas, final Piece piece) throws Exception
 	{
 		//if we are not to be displayed don't continue
 		if (hasDeadCompleted())
 			return;
 		
 		//if there are no dimensions we won't render
-		if (this.colW - this.colE == 0 || this.rowN - this.rowS == 0)
+		if (getCorners().isEmpty())
 			return;
 		
-		//calculate the coordinates for rendering
-		calculate(piece);
+		//make sure the corners are at the render location of the piece
+		getCorners().update(piece);
 		
-		//the alpha transparency
-		int alpha = OPAQUE;
+		//calculate the coordinates for rendering, only if the corners changed
+		if (this.version != getCorners().getVersion())
+			calculate();
 		
-		//calculate transparency accordingly
-		if (isDead())
-		{
-			//calculate our progress
-			final float progress = (1.0f - (frames / FRAMES_LIMIT));
-			
-			//set the transparency accordingly
-			alpha = (int)(progress * OPAQUE);
-		}
+		//get the shared paint for this type of side
+		final Paint paint = Palette.getPaint(getType());
 		
-		//different values that make up a color
-		int r = Color.red(color);
-		int g = Color.green(color);
-		int b = Color.blue(color);
+		//set the precalculated color and render shape
+		paint.setColor(piece.getPalette().getColor(getType(), getAlpha()));
+		canvas.drawPath(this, paint);
+	}
+	
+	/**
+	 * Add the side to the batch, instead of rendering it right away
+	 * @param batch The batch collecting the sides to render
+	 * @param piece The piece this side belongs to
+	 * @throws Exception
+	 */
+	public void render(final Batch batch, final Piece piece) throws Exception
+	{
+		//if we are not to be displayed don't continue
+		if (hasDeadCompleted())
+			return;
 		
-		//alter the color accordingly
-		switch (getType())
-		{
-			case Top:
-				//don't need to alter color of the roof
-				break;
-				
-			case East:
-				r = Math.min(Math.round(r * FACTOR_EAST), 255);
-				g = Math.min(Math.round(g * FACTOR_EAST), 255);
-				b = Math.min(Math.round(b * FACTOR_EAST), 255);
-				break;
-				
-			case South:
-				r = Math.min(Math.round(r * FACTOR_SOUTH), 255);
-				g = Math.min(Math.round(g * FACTOR_SOUTH), 255);
-				b = Math.min(Math.round(b * FACTOR_SOUTH), 255);
-				break;
-				
-			default:
-				throw new Exception("Type not supported = " + getType());
-		}
+		//if there are no dimensions we won't render
+		if (getCorners().isEmpty())
+			return;
 		
-		//set fill and render shape
-		paint.setARGB(alpha, r, g, b);
-		paint.setStyle(Style.FILL);
-		canvas.drawPath(this, paint);
+		//make sure the corners are at the render location of the piece
+		getCorners().update(piece);
+		
+		//add the outline with the precalculated color
+		batch.add(getCorners(), getOutline(), piece.getPalette().getColor(getType(), getAlpha()));
 	}
 }
\ No newline at end of file
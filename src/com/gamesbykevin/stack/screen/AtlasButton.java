@@ -0,0 +1,99 @@
+package com.gamesbykevin.stack.screen;
+
+import com.gamesbykevin.androidframework.awt.Button;
+import com.gamesbykevin.stack.assets.Assets;
+import com.gamesbykevin.stack.assets.Atlas;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+
+/**
+ * A button that renders its image from a region of our atlas.<br>
+ * If the image was not packed in our atlas, the separate image is rendered instead
+ * @author GOD
+ */
+public class AtlasButton extends Button
+{
+	//the key of our button image
+	private final Object key;
+	
+	//the rectangle where we render the image
+	private final Rect destination = new Rect();
+	
+	/**
+	 * Create the button
+	 * @param key The key of our button image
+	 */
+	public AtlasButton(final Object key)
+	{
+		super(getImage(key));
+		
+		this.key = key;
+		
+		//the default size is the size of our image
+		final Atlas atlas = Assets.getAtlas();
+		
+		if (atlas != null && atlas.contains(key))
+		{
+			super.setWidth(atlas.getRegion(key).width());
+			super.setHeight(atlas.getRegion(key).height());
+		}
+	}
+	
+	/**
+	 * Get the image for the parent button
+	 * @param key The key of our button image
+	 * @return The page of the atlas containing the image, or the separate image if it isn't in the atlas
+	 */
+	private static Bitmap getImage(final Object key)
+	{
+		final Atlas atlas = Assets.getAtlas();
+		
+		return (atlas != null && atlas.contains(key)) ? atlas.getPage(key) : Assets.getImage(key);
+	}
+	
+	@Override
+	public void render(final Canvas canvas) throws Exception
+	{
+		final Atlas atlas = Assets.getAtlas();
+		
+		//if the image isn't in the atlas, render as normal
+		if (atlas == null || !atlas.contains(this.key))
+		{
+			super.render(canvas);
+			return;
+		}
+		
+		this.destination.set(
+			(int)getX(), 
+			(int)getY(), 
+			(int)(getX() + getWidth()), 
+			(int)(getY() + getHeight())
+		);
+		
+		//render the region of our image
+		atlas.render(canvas, this.key, this.destination, null);
+	}
+	
+	@Override
+	public void render(final Canvas canvas, final Paint paint) throws Exception
+	{
+		final Atlas atlas = Assets.getAtlas();
+		
+		//if the image isn't in the atlas, render as normal
+		if (atlas == null || !atlas.contains(this.key))
+		{
+			super.render(canvas, paint);
+			return;
+		}
+		
+		//render the image
+		render(canvas);
+		
+		//render the description on top
+		if (!getDescriptions().isEmpty())
+			canvas.drawText(getDescription(), getTextX(), getTextY(), paint);
+	}
+}
@@ -1,10 +1,19 @@
 package com.gamesbykevin.stack.screen;
 
+import android.graphics.Bitmap;
+import android.graphics.Bitmap.Config;
 import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.graphics.Rect;
 import com.gamesbykevin.androidframework.resources.Disposable;
 import com.gamesbykevin.androidframework.screen.Screen;
+import com.gamesbykevin.stack.assets.ImageCache;
 import com.gamesbykevin.stack.game.Game;
 import com.gamesbykevin.stack.game.GameHelper;
+import com.gamesbykevin.stack.panel.GamePanel;
+import com.gamesbykevin.stack.panel.ResolutionGovernor;
 
 /**
  * The game screen that contains the game
@@ -18,6 +27,24 @@ public class GameScreen implements Screen, Disposable
     //our main screen reference
     private final ScreenManager screen;
     
+    /**
+     * The paint used to upscale the game layer when it is rendered at a lower resolution
+     */
+    private static final Paint FILTER = new Paint(Paint.FILTER_BITMAP_FLAG);
+    
+    //the game layer rendered at a lower resolution, null until needed
+    private Bitmap buffer;
+    
+    //the canvas used to draw on our buffer
+    private Canvas bufferCanvas;
+    
+    //where our buffer is rendered
+    private final Rect destination = new Rect(0, 0, GamePanel.WIDTH, GamePanel.HEIGHT);
+    
+    //objects used to read the scale of the canvas
+    private final Matrix matrix = new Matrix();
+    private final float[] values = new float[9];
+    
     public GameScreen(final ScreenManager screen)
     {
         this.screen = screen;
@@ -79,12 +106,99 @@ public class GameScreen implements Screen, Disposable
     {
         //render game if exists
         if (getGame() != null)
-            getGame().render(canvas);
+        {
+        	final ResolutionGovernor governor = getScreen().getPanel().getGovernor();
+        	
+        	//the resolution chosen by our governor
+        	final float scale = governor.getScale();
+        	
+        	//get the scale of the device, our canvas is not affected by the governor
+        	canvas.getMatrix(this.matrix);
+        	this.matrix.getValues(this.values);
+        	
+        	//the settled pieces are always drawn at the scale of the device
+        	getGame().getBoard().getLayer().setScale(this.values[Matrix.MSCALE_X], this.values[Matrix.MSCALE_Y]);
+        	
+        	//track how long the game takes to render, the rest of the screen doesn't change with the resolution
+        	final long start = System.nanoTime();
+        	
+        	if (scale >= 1.0f)
+        	{
+        		//render at the full resolution
+        		getGame().render(canvas);
+        	}
+        	else
+        	{
+        		//render at a lower resolution, then upscale
+        		renderBuffer(canvas, scale);
+        	}
+        	
+        	//only measure while the game is being played, menus and the splash screen would skew the samples
+        	if (getScreen().getState() == ScreenManager.State.Running && GameHelper.canPlay())
+        		governor.add(System.nanoTime() - start);
+        }
+    }
+    
+    /**
+     * Render the game layer on our buffer at a lower resolution, then upscale the buffer to the canvas
+     * @param canvas The canvas to which we render pixel data
+     * @param scale The resolution of our buffer compared to the canvas
+     * @throws Exception
+     */
+    private void renderBuffer(final Canvas canvas, final float scale) throws Exception
+    {
+    	//the size of our buffer, using the scale of the canvas read in render()
+    	final int width = Math.max(1, Math.round(GamePanel.WIDTH * this.values[Matrix.MSCALE_X] * scale));
+    	final int height = Math.max(1, Math.round(GamePanel.HEIGHT * this.values[Matrix.MSCALE_Y] * scale));
+    	
+    	//create our buffer if it doesn't exist or the resolution changed
+    	if (this.buffer == null || this.buffer.getWidth() != width || this.buffer.getHeight() != height)
+    	{
+    		recycleBuffer();
+    		
+    		this.buffer = Bitmap.createBitmap(width, height, Config.ARGB_8888);
+    		this.bufferCanvas = new Canvas(this.buffer);
+    	}
+    	
+    	//the background shows through the game layer
+    	this.buffer.eraseColor(Color.TRANSPARENT);
+    	
+    	//render the game scaled to our buffer
+    	final int savedState = this.bufferCanvas.save();
+    	this.bufferCanvas.scale((float)width / GamePanel.WIDTH, (float)height / GamePanel.HEIGHT);
+    	getGame().render(this.bufferCanvas);
+    	this.bufferCanvas.restoreToCount(savedState);
+    	
+    	//upscale our buffer over the game area
+    	canvas.drawBitmap(this.buffer, null, this.destination, FILTER);
+    }
+    
+    /**
+     * Get the bytes
+     * @return The number of bytes used by our buffer and the images of our game
+     */
+    public long getBytes()
+    {
+    	return ImageCache.getBytes(this.buffer) + ((getGame() != null) ? getGame().getBytes() : 0);
+    }
+    
+    /**
+     * Recycle our buffer (if it exists)
+     */
+    private void recycleBuffer()
+    {
+    	if (this.buffer != null)
+    		this.buffer.recycle();
+    	
+    	this.buffer = null;
+    	this.bufferCanvas = null;
     }
     
     @Override
     public void dispose()
     {
+    	recycleBuffer();
+    	
         if (game != null)
         {
             game.dispose();
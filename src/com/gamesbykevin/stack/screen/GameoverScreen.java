@@ -5,14 +5,16 @@ import android.view.MotionEvent;
 
 import java.util.HashMap;
 
+import com.gamesbykevin.androidframework.anim.Animation;
 import com.gamesbykevin.androidframework.awt.Button;
 import com.gamesbykevin.androidframework.resources.Disposable;
-import com.gamesbykevin.androidframework.resources.Images;
 import com.gamesbykevin.androidframework.screen.Screen;
 import com.gamesbykevin.stack.MainActivity;
 import com.gamesbykevin.stack.assets.Assets;
 import com.gamesbykevin.stack.game.GameHelper;
 import com.gamesbykevin.stack.thread.MainThread;
+import com.gamesbykevin.stack.tween.Easing;
+import com.gamesbykevin.stack.tween.Tween;
 
 /**
  * The game over screen
@@ -23,13 +25,13 @@ public class GameoverScreen implements Screen, Disposable
     //our main screen reference
     private final ScreenManager screen;
     
-    //keep track of the number of frames passed
-    private int frames;
+    //keep track of the time passed
+    private final Tween delay = new Tween();
     
     /**
-     * The amount of time to wait until we render the game over menu
+     * The amount of time to wait until we render the game over menu (nanoseconds)
      */
-    private static final long MENU_DISPLAY_FRAMES_DELAY = MainThread.FPS;
+    private static final long MENU_DISPLAY_DELAY = Animation.NANO_SECONDS_PER_SECOND;
     
     //do we display the menu
     private boolean display = false;
@@ -97,6 +99,9 @@ public class GameoverScreen implements Screen, Disposable
         
         y += ScreenManager.BUTTON_Y_INCREMENT;
         addButton(x, y, Key.Rate, MenuScreen.BUTTON_TEXT_RATE_APP);
+        
+        //start the timer
+        this.delay.start(0.0f, 1.0f, MENU_DISPLAY_DELAY, Easing.Linear);
     }
     
     private ScreenManager getScreen()
@@ -114,7 +119,7 @@ public class GameoverScreen implements Screen, Disposable
     private void addButton(final int x, final int y, final Key key, final String description)
     {
     	//create new button
-    	Button button = new Button(Images.getImage(Assets.ImageMenuKey.Button));
+    	Button button = new AtlasButton(Assets.ImageMenuKey.Button);
     	
     	//position the button
     	button.setX(x);
@@ -139,8 +144,8 @@ public class GameoverScreen implements Screen, Disposable
     @Override
     public void reset()
     {
-        //reset frame count
-    	this.frames = 0;
+        //start the timer over
+    	this.delay.start(0.0f, 1.0f, MENU_DISPLAY_DELAY, Easing.Linear);
         
         //do we display the menu
         setDisplay(false);
@@ -288,7 +293,7 @@ public class GameoverScreen implements Screen, Disposable
 	        if (!hasDisplay())
 	        {
 	            //if time has passed display menu
-	            if (this.frames >= MENU_DISPLAY_FRAMES_DELAY)
+	            if (this.delay.isFinished())
 	            {
 	            	//get our score
 	            	final int scoreResult = getScreen().getScreenGame().getGame().getCurrent().getNumber(); 
@@ -301,8 +306,8 @@ public class GameoverScreen implements Screen, Disposable
 	            }
 	            else
 	            {
-	            	//keep counting the frames
-	            	this.frames++;
+	            	//keep counting the time
+	            	this.delay.update(MainThread.TICK_NANOS);
 	            }
 	        }
     	}
@@ -317,7 +322,7 @@ public class GameoverScreen implements Screen, Disposable
             ScreenManager.darkenBackground(canvas);
             
             //if new record, render different image, else display "Game Over"
-            canvas.drawBitmap(Images.getImage((newRecord) ?  Assets.ImageMenuKey.NewRecord : Assets.ImageMenuKey.Gameover), 40, 20, getScreen().getPaint());
+            Assets.render(canvas, (newRecord) ?  Assets.ImageMenuKey.NewRecord : Assets.ImageMenuKey.Gameover, 40, 20, getScreen().getPaint());
             
             //render the buttons
             for (Key key : Key.values())
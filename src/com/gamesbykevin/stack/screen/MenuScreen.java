@@ -1,12 +1,10 @@
 package com.gamesbykevin.stack.screen;
 
-import android.graphics.Bitmap;
 import android.graphics.Canvas;
 import android.view.MotionEvent;
 
 import com.gamesbykevin.androidframework.awt.Button;
 import com.gamesbykevin.androidframework.resources.Disposable;
-import com.gamesbykevin.androidframework.resources.Images;
 import com.gamesbykevin.androidframework.screen.Screen;
 import com.gamesbykevin.stack.MainActivity;
 import com.gamesbykevin.stack.assets.Assets;
@@ -20,9 +18,6 @@ import java.util.HashMap;
  */
 public class MenuScreen implements Screen, Disposable
 {
-    //the logo
-    private final Bitmap logo;
-    
     //our main screen reference
     private final ScreenManager screen;
     
@@ -109,9 +104,6 @@ public class MenuScreen implements Screen, Disposable
      */
     public MenuScreen(final ScreenManager screen)
     {
-        //store reference to the logo
-        this.logo = Images.getImage(Assets.ImageMenuKey.Logo);
-        
         //store our screen reference
         this.screen = screen;
         
@@ -195,7 +187,7 @@ public class MenuScreen implements Screen, Disposable
     private void addButton(final double x, final double y, final String desc, final Key key, final Assets.ImageMenuKey imageKey)
     {
     	//create button of specified image
-        Button button = new Button(Images.getImage(imageKey));
+        Button button = new AtlasButton(imageKey);
         
         //set the location
         button.setX(x);
@@ -219,6 +211,15 @@ public class MenuScreen implements Screen, Disposable
         setSelection(null);
     }
     
+    /**
+     * Has the user started a new game?
+     * @return true if the splash screen is shown until the game is ready, false otherwise
+     */
+    public boolean hasReset()
+    {
+    	return this.reset;
+    }
+    
     /**
      * Get the menu selection
      * @return The unique key of the button the user pressed
@@ -333,6 +334,9 @@ public class MenuScreen implements Screen, Disposable
                     //flag notify false
                     notify = false;
                     
+                    //we now show the splash screen
+                    getScreen().updateScope();
+                    
                     //play sound effect
                     Assets.playMenuSelection();
                     
@@ -381,8 +385,12 @@ public class MenuScreen implements Screen, Disposable
     	}
     	else if (reset && notify)
         {
-            //load game assets
+            //make sure the game assets are loading
             Assets.load(getScreen().getPanel().getActivity());
+            
+            //keep showing the splash screen until the game assets are ready
+            if (!Assets.isReady(Assets.GROUPS_GAME))
+            	return;
 
             //create the game
             getScreen().getScreenGame().createGame();
@@ -401,7 +409,7 @@ public class MenuScreen implements Screen, Disposable
         if (reset)
         {
             //render splash screen
-            canvas.drawBitmap(Images.getImage(Assets.ImageMenuKey.Splash), 0, 0, null);
+            Assets.renderFullscreen(canvas, Assets.ImageMenuKey.Splash);
             
             //we notified the user
             notify = true;
@@ -409,7 +417,7 @@ public class MenuScreen implements Screen, Disposable
         else
         {
 	        //draw main logo
-	        canvas.drawBitmap(logo, ScreenManager.LOGO_X, ScreenManager.LOGO_Y, null);
+	        Assets.render(canvas, Assets.ImageMenuKey.Logo, ScreenManager.LOGO_X, ScreenManager.LOGO_Y, null);
 	
 	        //draw the menu buttons
 	        if (buttons != null)
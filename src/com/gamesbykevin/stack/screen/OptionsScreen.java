@@ -1,6 +1,5 @@
 package com.gamesbykevin.stack.screen;
 
-import android.graphics.Bitmap;
 import android.graphics.Canvas;
 import android.view.MotionEvent;
 
@@ -9,7 +8,6 @@ import java.util.HashMap;
 import com.gamesbykevin.androidframework.awt.Button;
 import com.gamesbykevin.androidframework.resources.Audio;
 import com.gamesbykevin.androidframework.resources.Disposable;
-import com.gamesbykevin.androidframework.resources.Images;
 import com.gamesbykevin.androidframework.screen.Screen;
 import com.gamesbykevin.stack.MainActivity;
 import com.gamesbykevin.stack.assets.Assets;
@@ -21,9 +19,6 @@ import com.gamesbykevin.stack.storage.settings.Settings;
  */
 public class OptionsScreen implements Screen, Disposable
 {
-    //our logo reference
-    private final Bitmap logo;
-    
     //list of buttons
     private HashMap<Key, Button> buttons;
     
@@ -45,9 +40,6 @@ public class OptionsScreen implements Screen, Disposable
     
     public OptionsScreen(final ScreenManager screen)
     {
-        //our logo reference
-        this.logo = Images.getImage(Assets.ImageMenuKey.Logo);
-
         //create buttons hash map
         this.buttons = new HashMap<Key, Button>();
 
@@ -121,22 +113,22 @@ public class OptionsScreen implements Screen, Disposable
      */
     private void addIcons()
     {
-        Button tmp = new Button(Images.getImage(Assets.ImageMenuKey.Instructions));
+        Button tmp = new AtlasButton(Assets.ImageMenuKey.Instructions);
         tmp.setX(MenuScreen.ICON_X_INSTRUCTIONS);
         tmp.setY(MenuScreen.ICON_Y);
         this.buttons.put(Key.Instructions, tmp);
         
-        tmp = new Button(Images.getImage(Assets.ImageMenuKey.Facebook));
+        tmp = new AtlasButton(Assets.ImageMenuKey.Facebook);
         tmp.setX(MenuScreen.ICON_X_FACEBOOK);
         tmp.setY(MenuScreen.ICON_Y);
         this.buttons.put(Key.Facebook, tmp);
         
-        tmp = new Button(Images.getImage(Assets.ImageMenuKey.Twitter));
+        tmp = new AtlasButton(Assets.ImageMenuKey.Twitter);
         tmp.setX(MenuScreen.ICON_X_TWITTER);
         tmp.setY(MenuScreen.ICON_Y);
         this.buttons.put(Key.Twitter, tmp);
         
-        tmp = new Button(Images.getImage(Assets.ImageMenuKey.Youtube));
+        tmp = new AtlasButton(Assets.ImageMenuKey.Youtube);
         tmp.setX(MenuScreen.ICON_X_YOUTUBE);
         tmp.setY(MenuScreen.ICON_Y);
         this.buttons.put(Key.Youtube, tmp);
@@ -144,7 +136,7 @@ public class OptionsScreen implements Screen, Disposable
     
     private void addButtonBack(final int x, final int y)
     {
-        Button button = new Button(Images.getImage(Assets.ImageMenuKey.Button));
+        Button button = new AtlasButton(Assets.ImageMenuKey.Button);
         button.addDescription("Go  Back");
         button.setX(x);
         button.setY(y);
@@ -153,7 +145,7 @@ public class OptionsScreen implements Screen, Disposable
     
     private void addButtonSound(final int x, final int y)
     {
-        Button button = new Button(Images.getImage(Assets.ImageMenuKey.Button));
+        Button button = new AtlasButton(Assets.ImageMenuKey.Button);
         button.addDescription("Sound: On");
         button.addDescription("Sound: Off");
         button.setX(x);
@@ -163,7 +155,7 @@ public class OptionsScreen implements Screen, Disposable
     
     private void addButtonVibrate(final int x, final int y)
     {
-        Button button = new Button(Images.getImage(Assets.ImageMenuKey.Button));
+        Button button = new AtlasButton(Assets.ImageMenuKey.Button);
         button.addDescription("Vibrate: On");
         button.addDescription("Vibrate: Off");
         button.setX(x);
@@ -407,7 +399,7 @@ public class OptionsScreen implements Screen, Disposable
     public void render(final Canvas canvas) throws Exception
     {
         //draw our main logo
-        canvas.drawBitmap(logo, ScreenManager.LOGO_X, ScreenManager.LOGO_Y, null);
+        Assets.render(canvas, Assets.ImageMenuKey.Logo, ScreenManager.LOGO_X, ScreenManager.LOGO_Y, null);
         
         //draw the menu buttons
     	for (Key key : Key.values())
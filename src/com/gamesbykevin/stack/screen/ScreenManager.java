@@ -1,6 +1,5 @@
 package com.gamesbykevin.stack.screen;
 
-import android.graphics.Bitmap;
 import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.Paint;
@@ -8,10 +7,10 @@ import android.graphics.Typeface;
 import com.gamesbykevin.androidframework.resources.Audio;
 
 import com.gamesbykevin.androidframework.resources.Disposable;
-import com.gamesbykevin.androidframework.resources.Images;
 import com.gamesbykevin.androidframework.screen.Screen;
 import com.gamesbykevin.stack.assets.Assets;
 import com.gamesbykevin.stack.panel.GamePanel;
+import com.gamesbykevin.stack.thread.MainThread;
 
 import java.util.HashMap;
 
@@ -41,8 +40,30 @@ public final class ScreenManager implements Screen, Disposable
     //the paint object used for the button text
     private Paint paint;
     
-    //the background of the game
-    private final Bitmap background;
+    /**
+     * The images the menu and options need to stay loaded, when there is no game behind them
+     */
+    private static final Object[] SCOPE_MENU = {
+    	Assets.ImageMenuKey.Background
+    };
+    
+    /**
+     * The images the menu needs to stay loaded, while the splash screen is shown until the game is ready
+     */
+    private static final Object[] SCOPE_MENU_RESET = {
+    	Assets.ImageMenuKey.Background, 
+    	Assets.ImageMenuKey.Splash
+    };
+    
+    /**
+     * The images the game needs to stay loaded, including the splash screen shown each time the game resets.<br>
+     * The numbers are rendered from glyphs created when the number image loaded, so the number image isn't needed
+     */
+    private static final Object[] SCOPE_GAME = {
+    	Assets.ImageMenuKey.Background, 
+    	Assets.ImageMenuKey.Splash, 
+    	Assets.ImageGameKey.BestText
+    };
     
     /**
      * The x-coordinate where we want the logo to be displayed
@@ -90,9 +111,6 @@ public final class ScreenManager implements Screen, Disposable
      */
     public ScreenManager(final GamePanel panel)
     {
-    	//store background
-    	this.background = Images.getImage(Assets.ImageMenuKey.Background);
-    	
         //store our game panel reference
         this.panel = panel;
         
@@ -169,6 +187,11 @@ public final class ScreenManager implements Screen, Disposable
         return screens.get(state);
     }
     
+    public MenuScreen getScreenMenu()
+    {
+        return (MenuScreen)screens.get(State.Ready);
+    }
+    
     public GameoverScreen getScreenGameover()
     {
         return (GameoverScreen)screens.get(State.GameOver);
@@ -251,6 +274,41 @@ public final class ScreenManager implements Screen, Disposable
     	{
         	//assign the state
 	        this.state = state;
+	        
+	        //only keep the images this state needs
+	        updateScope();
+    	}
+    }
+    
+    /**
+     * Only keep the images the current state renders.<br>
+     * This needs to be called whenever what we render changes without changing the state
+     */
+    public void updateScope()
+    {
+    	Assets.setScope(getScope());
+    }
+    
+    /**
+     * Get the scope
+     * @return The keys of the images the current state renders
+     */
+    private Object[] getScope()
+    {
+    	switch (getState())
+    	{
+	    	case Ready:
+	    	case Options:
+	    		
+	    		//the game is rendered behind the menu if it exists
+	    		if (getScreenGame().getGame() != null)
+	    			return SCOPE_GAME;
+	    		
+	    		//the menu shows the splash screen while the game is being created
+	    		return (getState() == State.Ready && getScreenMenu().hasReset()) ? SCOPE_MENU_RESET : SCOPE_MENU;
+	    		
+	    	default:
+	    		return SCOPE_GAME;
     	}
     }
     
@@ -262,7 +320,7 @@ public final class ScreenManager implements Screen, Disposable
             canvas.drawColor(Color.BLACK);
             
             //draw background
-            canvas.drawBitmap(background, 0, 0, null);
+            Assets.renderFullscreen(canvas, Assets.ImageMenuKey.Background);
             
             //render the game
             getScreenGame().render(canvas);
@@ -318,9 +376,26 @@ public final class ScreenManager implements Screen, Disposable
                 default:
                     throw new Exception("Undefined state " + state.toString());
             }
+            
+            //show how the game thread is keeping up
+            if (MainThread.DEBUG)
+            	renderStatistics(canvas);
         }
     }
     
+    /**
+     * Draw the frame statistics of the game thread in the corner of the screen
+     * @param canvas Object we are writing pixel data to
+     */
+    private void renderStatistics(final Canvas canvas)
+    {
+    	final float y = getPaint().getTextSize();
+    	
+    	canvas.drawText("Frame " + Math.round(getPanel().getFrameTimeMean()) + "ms, variance " + Math.round(getPanel().getFrameTimeVariance()), 0, y * 3, getPaint());
+    	canvas.drawText("Updates " + getPanel().getSimulatedFrames() + ", limit " + getPanel().getTickLimit(), 0, y, getPaint());
+    	canvas.drawText("Skipped " + getPanel().getSkippedFrames() + ", dropped " + getPanel().getDroppedFrames(), 0, y * 2, getPaint());
+    }
+    
     /**
      * Reset any necessary screen elements here
      */
@@ -1,6 +1,12 @@
 package com.gamesbykevin.stack.thread;
 
+import java.util.concurrent.locks.LockSupport;
+
+import android.annotation.TargetApi;
 import android.graphics.Canvas;
+import android.os.Build;
+import android.os.Looper;
+import android.view.Choreographer;
 import android.view.SurfaceHolder;
 import com.gamesbykevin.androidframework.anim.Animation;
 import com.gamesbykevin.stack.panel.GamePanel;
@@ -19,6 +25,40 @@ public class MainThread extends Thread
     //the assigned frames per second for this game
     public static final int FPS = 30;
     
+    /**
+     * Do we run the game updates at a fixed tick rate and render as fast as the display allows?<br>
+     * If false, every update is followed by a single render at the assigned fps
+     */
+    public static final boolean FIXED_TIMESTEP = true;
+    
+    /**
+     * The amount of time per each game update (nanoseconds)
+     */
+    public static final long TICK_NANOS = (Animation.NANO_SECONDS_PER_SECOND / FPS);
+    
+    /**
+     * Do we start each frame on the display vsync signal?<br>
+     * If false, or the device does not support it, we will schedule the frames ourselves
+     */
+    public static final boolean VSYNC = true;
+    
+    /**
+     * The default for the most updates we will perform before rendering, so a long stall won't freeze the game
+     */
+    public static final int DEFAULT_TICK_LIMIT = 5;
+    
+    //the most updates we will perform before rendering
+    private volatile int tickLimit = DEFAULT_TICK_LIMIT;
+    
+    //the number of updates performed, the number of renders skipped to catch up, and the number of updates dropped because we were too far behind
+    private volatile long simulated, skipped, dropped;
+    
+    //how far (0.0 - 1.0) the render is between the previous and current update
+    private static volatile float INTERPOLATION = 1.0f;
+    
+    //the time the game state of the current update is displayed on screen (nanoseconds)
+    private static volatile long UPDATE_TIME = System.nanoTime();
+    
     //our game panel
     private final GamePanel panel;
     
@@ -26,7 +66,7 @@ public class MainThread extends Thread
     private final SurfaceHolder holder;
     
     //is the thread running
-    private boolean running = false;
+    private volatile boolean running = false;
     
     //our canvas to render image(s)
     private Canvas canvas;
@@ -38,7 +78,23 @@ public class MainThread extends Thread
     public static final int COMPLETE_THREAD_ATTEMPTS = 1000;
     
     //do we pause the update/render
-    private boolean pause = false;
+    private volatile boolean pause = false;
+    
+    //the time of the previous frame, and when the next update is due (nanoseconds)
+    private long previous, tick;
+    
+    //the amount of time that has not been updated yet (nanoseconds)
+    private long lag;
+    
+    //the number of frames and the frame time totals used to measure the frame pacing
+    private int frames;
+    private double frameTimeTotal, frameTimeSquares;
+    
+    //the average and variance of the time between frames (milliseconds)
+    private volatile double frameTimeMean, frameTimeVariance;
+    
+    //the looper handling the vsync callbacks (if used)
+    private volatile Looper looper;
     
     public MainThread(SurfaceHolder holder, GamePanel panel)
     {
@@ -61,122 +117,401 @@ public class MainThread extends Thread
     	//do not pause the thread
     	setPause(false);
     	
-        //track total time elapsed to calculate fps
-        long totalTime = 0;
-        
-        //the frame count
-        int frames = 0;
+    	try
+    	{
+    		//start timing from now
+    		this.previous = System.nanoTime();
+    		this.tick = this.previous;
+    		this.lag = 0;
+    		
+    		//each render needs to fit within a single frame
+    		getPanel().getGovernor().setBudget(getFramePeriod());
+    		
+	    	//pace the frames with the display vsync if we can, else use our own scheduler
+	    	if (VSYNC && Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN)
+	    	{
+	    		runVsync();
+	    	}
+	    	else
+	    	{
+	    		runScheduled();
+	    	}
+    	}
+        catch (Exception ex)
+        {
+            ex.printStackTrace();
+        }
+        finally 
+        {
+        	//render the latest update
+        	INTERPOLATION = 1.0f;
+        	
+	        //stop thread
+	        setRunning(false);
+        }
+    }
+    
+    /**
+     * Game loop where every frame is started by the display vsync signal.<br>
+     * The thread will sleep in between frames until the looper is told to quit
+     */
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+    private void runVsync()
+    {
+    	//the choreographer needs a looper on this thread
+    	Looper.prepare();
+    	
+    	//store the looper so we can stop it from another thread
+    	this.looper = Looper.myLooper();
+    	
+    	//request the first frame
+    	new VsyncCallback(this).request();
+    	
+    	//handle frame callbacks until we quit
+    	Looper.loop();
+    	
+    	//the looper is finished
+    	this.looper = null;
+    }
+    
+    /**
+     * Stop the vsync looper (if running), so the thread won't wait for another vsync before it can finish
+     */
+    private void quitLooper()
+    {
+    	//get the looper
+    	final Looper looper = this.looper;
+    	
+    	//stop handling callbacks
+    	if (looper != null)
+    		looper.quit();
+    }
+    
+    /**
+     * Game loop where every frame is scheduled at a fixed period.<br>
+     * Each deadline is based on the previous deadline and not the time we woke up, so the frames won't drift
+     */
+    private void runScheduled()
+    {
+    	//the time between each frame
+    	final long period = getFramePeriod();
+    	
+    	//when the next frame is due
+    	long deadline = System.nanoTime();
+    	
+        //continue to loop while the thread is running
+        while (isRunning())
+        {
+        	//if the game is paused we won't continue
+        	if (isPaused())
+        		break;
+        	
+        	//update and render the frame
+        	frame(System.nanoTime());
+        	
+        	//the next frame is due one period after this one
+        	deadline += period;
+        	
+        	//get the current time
+        	final long now = System.nanoTime();
+        	
+        	if (now - deadline > period)
+        	{
+                //if debugging alert this frame took longer than expected
+                if (DEBUG)
+                	System.out.println("Thread frame took longer than expected: " + ((now - deadline) / Animation.NANO_SECONDS_PER_MILLISECOND) + "ms");
+                
+        		//we are more than a frame behind, start the schedule over instead of rushing frames
+        		deadline = now;
+        	}
+        	else if (deadline > now)
+        	{
+        		//wait until the next frame is due
+        		LockSupport.parkNanos(deadline - now);
+        	}
+        }
+    }
+    
+    /**
+     * Get the time between each frame for the scheduler
+     * @return The refresh period of the display if we render as often as possible, else the time of each update (nanoseconds)
+     */
+    private long getFramePeriod()
+    {
+    	if (FIXED_TIMESTEP)
+    	{
+    		try
+    		{
+	    		//get the refresh rate of the display
+	    		final float refreshRate = getPanel().getActivity().getWindowManager().getDefaultDisplay().getRefreshRate();
+	    		
+	    		//make sure the display gave us a valid rate
+	    		if (refreshRate > 0)
+	    			return (long)(Animation.NANO_SECONDS_PER_SECOND / refreshRate);
+    		}
+    		catch (Exception e)
+    		{
+    			e.printStackTrace();
+    		}
+    	}
+    	
+    	//render at the same rate as the updates
+    	return TICK_NANOS;
+    }
+    
+    /**
+     * Update and render a single frame
+     * @param frameTime The time this frame started (nanoseconds)
+     */
+    private void frame(final long frameTime)
+    {
+		//if we only render with each update and it isn't time for the next update, wait for the next frame
+		if (!FIXED_TIMESTEP && frameTime < this.tick)
+			return;
+		
+    	//track how consistent the frames are
+    	updateFrameStatistics(frameTime);
+    	
+    	//the number of updates performed this frame
+    	int updates = 0;
+    	
+    	try
+    	{
+    		//the most updates we can perform before rendering
+    		final int limit = getTickLimit();
+    		
+	    	if (FIXED_TIMESTEP)
+	    	{
+	            //add the time passed since the previous frame
+	            this.lag += frameTime - this.previous;
+	            
+	            //if we fell too far behind, don't try to catch up all of it
+	            if (this.lag > TICK_NANOS * limit)
+	            {
+	                //if debugging alert that we skipped time
+	                if (DEBUG)
+	                	System.out.println("Thread update fell behind: " + (this.lag / Animation.NANO_SECONDS_PER_MILLISECOND) + "ms");
+	                
+	                //count the updates we won't perform
+	                this.dropped += (this.lag - (TICK_NANOS * limit)) / TICK_NANOS;
+	                
+	            	this.lag = TICK_NANOS * limit;
+	            }
+	            
+	            //update the game for every tick that has passed
+	            while (this.lag >= TICK_NANOS)
+	            {
+	            	//the render interpolates from the previous update to this one, 
+	            	//so this update is only fully on screen one tick after the time still left over after it
+	            	UPDATE_TIME = frameTime - (this.lag - TICK_NANOS) + TICK_NANOS;
+	            	
+	                //update our game panel
+	                getPanel().update();
+	                updates++;
+	                
+	                //we have simulated this tick
+	                this.lag -= TICK_NANOS;
+	            }
+	            
+	            //the render will be between the previous and current update
+	            INTERPOLATION = (float)this.lag / TICK_NANOS;
+	    	}
+	    	else
+	    	{
+	    		//perform every update that is due, without rendering in between, up to our limit
+	    		while (frameTime >= this.tick && updates < limit)
+	    		{
+		    		//the render shows this update as is, at the time it was due
+		    		UPDATE_TIME = this.tick;
+		    		
+		    		//the next update is due one tick after this one
+		    		this.tick += TICK_NANOS;
+		    		
+		            //update our game panel
+		            getPanel().update();
+		            updates++;
+	    		}
+	    		
+	    		//if we are still behind, drop the remaining updates and start over from this frame
+	    		if (frameTime >= this.tick)
+	    		{
+	                //if debugging alert that we skipped time
+	                if (DEBUG)
+	                	System.out.println("Thread update fell behind: " + ((frameTime - this.tick) / Animation.NANO_SECONDS_PER_MILLISECOND) + "ms");
+	                
+	    			this.dropped += ((frameTime - this.tick) / TICK_NANOS) + 1;
+	    			this.tick = frameTime + TICK_NANOS;
+	    		}
+	    	}
+    	}
+        catch (Exception e)
+        {
+            e.printStackTrace();
+        }
+    	finally
+    	{
+    		//remember when this frame started
+    		this.previous = frameTime;
+    		
+    		//only the last update is rendered, the renders in between were skipped to catch up
+    		this.simulated += updates;
+    		
+    		if (updates > 1)
+    			this.skipped += updates - 1;
+    	}
         
-        //the expected amount of time per each update
-        final long targetTime = (Animation.MILLISECONDS_PER_SECOND / FPS);
+        //render the current frame
+        render();
+    }
+    
+    /**
+     * Track the time between each frame, so we can measure how consistent the frame pacing is
+     * @param frameTime The time this frame started (nanoseconds)
+     */
+    private void updateFrameStatistics(final long frameTime)
+    {
+    	//the time since the previous frame (milliseconds)
+    	final double elapsed = (double)(frameTime - this.previous) / Animation.NANO_SECONDS_PER_MILLISECOND;
+    	
+    	//add to our totals
+    	this.frames++;
+    	this.frameTimeTotal += elapsed;
+    	this.frameTimeSquares += (elapsed * elapsed);
+    	
+    	//once we have a second of frames, calculate the results
+    	if (this.frameTimeTotal >= Animation.MILLISECONDS_PER_SECOND)
+    	{
+    		//calculate the average and the variance
+    		this.frameTimeMean = this.frameTimeTotal / this.frames;
+    		this.frameTimeVariance = (this.frameTimeSquares / this.frames) - (this.frameTimeMean * this.frameTimeMean);
+    		
+            //display the results
+            if (DEBUG)
+            	System.out.println("Average FPS " + (Animation.MILLISECONDS_PER_SECOND / this.frameTimeMean) + ", frame time variance " + this.frameTimeVariance + "ms, bitmaps " + getPanel().getBitmapBytes() + " bytes");
+            
+            //reset these values
+            this.frames = 0;
+            this.frameTimeTotal = 0;
+            this.frameTimeSquares = 0;
+    	}
+    }
+    
+    /**
+     * Get the average frame time
+     * @return The average time between frames measured over the last second (milliseconds)
+     */
+    public double getFrameTimeMean()
+    {
+    	return this.frameTimeMean;
+    }
+    
+    /**
+     * Get the frame time variance
+     * @return The variance of the time between frames measured over the last second (milliseconds squared)
+     */
+    public double getFrameTimeVariance()
+    {
+    	return this.frameTimeVariance;
+    }
+    
+    /**
+     * Assign the tick limit.<br>
+     * When we fall behind, up to this many updates are performed before rendering, the rest of the time is dropped
+     * @param tickLimit The most updates we will perform before rendering, at least 1
+     */
+    public void setTickLimit(final int tickLimit)
+    {
+    	this.tickLimit = Math.max(1, tickLimit);
+    }
+    
+    /**
+     * Get the tick limit
+     * @return The most updates we will perform before rendering
+     */
+    public int getTickLimit()
+    {
+    	return this.tickLimit;
+    }
+    
+    /**
+     * Get the simulated frames
+     * @return The total number of game updates performed
+     */
+    public long getSimulatedFrames()
+    {
+    	return this.simulated;
+    }
+    
+    /**
+     * Get the skipped frames
+     * @return The total number of renders skipped, so the game updates could catch up to real time
+     */
+    public long getSkippedFrames()
+    {
+    	return this.skipped;
+    }
+    
+    /**
+     * Get the dropped frames
+     * @return The total number of game updates dropped, because we fell further behind than the tick limit allows
+     */
+    public long getDroppedFrames()
+    {
+    	return this.dropped;
+    }
+    
+    /**
+     * Lock the canvas and render the game panel
+     */
+    private void render()
+    {
+        //assign the canvas null
+        setCanvas(null);
         
-        try
+        try 
         {
-            //continue to loop while the thread is running
-            while (isRunning())
-            {
-            	//if the game is paused we won't continue
-            	if (isPaused())
-            	{
-            		//exit the loop
-            		break;
-            	}
-            	
-                //get the start time of this update
-                final long startTime = System.nanoTime();
-
-                //assign the canvas null
-                setCanvas(null);
-
-                try 
-                {
-                    //update our game panel
-                    getPanel().update();
-                    
-                    //attempt to lock the canvas to edit the pixels of the surface
-                	setCanvas(getHolder().lockCanvas());
-
-                    //make sure no other threads are accessing the holder
-                    synchronized (getHolder())
-                    {
-                        //if the canvas object was obtained, render
-                        if (getCanvas() != null)
-                            getPanel().draw(getCanvas());
-                    }
-                }
-                catch (Exception e)
-                {
-                    e.printStackTrace();
-                }
-                finally 
-                {
-                	//unlock the canvas
-                	unlockCanvas();
-                }
-
-                //calculate the number of milliseconds elapsed
-                final long timeMillis = (System.nanoTime() - startTime) / Animation.NANO_SECONDS_PER_MILLISECOND;
-
-                //determine the amount of time to sleep
-                long waitTime = targetTime - timeMillis;
-
-                //make sure the wait time is at least 1 millisecond
-                if (waitTime < 1)
-                {
-                    //if debugging alert this update took longer than expected
-                    if (DEBUG)
-                    	System.out.println("Thread update took longer than expected: " + waitTime);
-                    
-                    //make sure we sleep at least 1 millisecond
-                    waitTime = 1;
-                }
-                
-                try
-                {
-                    //sleep the thread
-                    sleep(waitTime);
-                }
-                catch (Exception e)
-                {
-                    e.printStackTrace();
-                }
-
-                //if we are debugging, print the fps
-                if (DEBUG)
-                {
-                    //calculate the total time passed
-                    totalTime += System.nanoTime() - startTime;
-
-                    //increase the frame count
-                    frames++;
-
-                    //if the frame count = the assigned fps
-                    if (frames == FPS)
-                    {
-                        //calculate the average fps
-                        final double fpsAverage = (double)Animation.MILLISECONDS_PER_SECOND / ((double)(totalTime / frames) / Animation.NANO_SECONDS_PER_MILLISECOND);
+            //attempt to lock the canvas to edit the pixels of the surface
+        	setCanvas(getHolder().lockCanvas());
 
-                        //reset these values
-                        frames = 0;
-                        totalTime = 0;
-
-                        //display the average
-                        System.out.println("Average FPS " + fpsAverage);
-                    }
-                }
+            //make sure no other threads are accessing the holder
+            synchronized (getHolder())
+            {
+                //if the canvas object was obtained, render
+                if (getCanvas() != null)
+                    getPanel().draw(getCanvas());
             }
         }
-        catch (Exception ex)
+        catch (Exception e)
         {
-            ex.printStackTrace();
+            e.printStackTrace();
         }
         finally 
         {
-	        //stop thread
-	        setRunning(false);
+        	//unlock the canvas
+        	unlockCanvas();
         }
     }
     
+    /**
+     * Get the interpolation
+     * @return How far the render is between the previous update (0.0) and the current update (1.0)
+     */
+    public static float getInterpolation()
+    {
+    	return INTERPOLATION;
+    }
+    
+    /**
+     * Get the update time.<br>
+     * This uses the same time base as System.nanoTime(), and MotionEvent.getEventTime() converted to nanoseconds.<br>
+     * The state of an update is displayed at this time, the frames before it are between the previous and current update
+     * @return The time the game state of the current update is displayed on screen (nanoseconds)
+     */
+    public static long getUpdateTime()
+    {
+    	return UPDATE_TIME;
+    }
+    
     /**
      * Here we check if the canvas has a lock, and if so release it
      */
@@ -205,6 +540,10 @@ public class MainThread extends Thread
     public void setPause(final boolean pause)
     {
     	this.pause = pause;
+    	
+    	//if pausing, the thread will finish
+    	if (pause)
+    		quitLooper();
     }
     
     /**
@@ -223,6 +562,10 @@ public class MainThread extends Thread
     public void setRunning(final boolean running)
     {
         this.running = running;
+        
+        //if not running, the thread will finish
+        if (!running)
+        	quitLooper();
     }
     
     /**
@@ -269,4 +612,44 @@ public class MainThread extends Thread
     {
     	return this.holder;
     }
+    
+    /**
+     * Receives the display vsync signal and runs a frame of the game each time
+     */
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+    private static final class VsyncCallback implements Choreographer.FrameCallback
+    {
+    	//the thread running the game
+    	private final MainThread thread;
+    	
+    	private VsyncCallback(final MainThread thread)
+    	{
+    		this.thread = thread;
+    	}
+    	
+    	/**
+    	 * Request a callback on the next vsync
+    	 */
+    	private void request()
+    	{
+    		Choreographer.getInstance().postFrameCallback(this);
+    	}
+    	
+		@Override
+		public void doFrame(final long frameTimeNanos) 
+		{
+			//if we are no longer running, stop the looper so the thread can finish
+			if (!thread.isRunning() || thread.isPaused())
+			{
+				thread.quitLooper();
+				return;
+			}
+			
+			//update and render the frame
+			thread.frame(frameTimeNanos);
+			
+			//wait for the next vsync
+			request();
+		}
+    }
 }
\ No newline at end of file
@@ -0,0 +1,52 @@
+package com.gamesbykevin.stack.tween;
+
+/**
+ * The different ways a tween can progress from the start value to the end value
+ * @author GOD
+ */
+public enum Easing
+{
+	/**
+	 * Constant speed
+	 */
+	Linear,
+
+	/**
+	 * Start slow and speed up
+	 */
+	EaseIn,
+
+	/**
+	 * Start fast and slow down
+	 */
+	EaseOut,
+
+	/**
+	 * Start slow, speed up, then slow down
+	 */
+	EaseInOut;
+
+	/**
+	 * Apply the easing
+	 * @param progress How far through the tween we are ranging from 0.0 (start) - 1.0 (finished)
+	 * @return How far from the start value to the end value we are ranging from 0.0 - 1.0
+	 */
+	public float apply(final float progress)
+	{
+		switch (this)
+		{
+			case EaseIn:
+				return progress * progress;
+
+			case EaseOut:
+				return progress * (2.0f - progress);
+
+			case EaseInOut:
+				return progress * progress * (3.0f - (2.0f * progress));
+
+			case Linear:
+			default:
+				return progress;
+		}
+	}
+}
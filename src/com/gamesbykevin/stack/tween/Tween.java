@@ -0,0 +1,105 @@
+package com.gamesbykevin.stack.tween;
+
+/**
+ * Moves a value from a start value to an end value over a duration of time.<br>
+ * The tween is advanced by the time that has passed, so the animation takes the same time no matter how often we update.<br>
+ * A tween can be started again as many times as needed, so nothing is created while the game is running
+ * @author GOD
+ */
+public class Tween
+{
+	//the start and end values
+	private float from = 0, to = 0;
+
+	//how long the tween takes, and how much time has passed (nanoseconds)
+	private long duration = 0, elapsed = 0;
+
+	//how we progress from the start to the end value
+	private Easing easing = Easing.Linear;
+
+	//has the tween been started
+	private boolean started = false;
+
+	/**
+	 * Start the tween from the beginning
+	 * @param from The start value
+	 * @param to The end value
+	 * @param duration How long we take to reach the end value (nanoseconds)
+	 * @param easing How we progress from the start to the end value
+	 */
+	public void start(final float from, final float to, final long duration, final Easing easing)
+	{
+		this.from = from;
+		this.to = to;
+		this.duration = duration;
+		this.easing = easing;
+		this.elapsed = 0;
+		this.started = true;
+	}
+
+	/**
+	 * Stop the tween, it will need to be started again
+	 */
+	public void reset()
+	{
+		this.started = false;
+		this.elapsed = 0;
+	}
+
+	/**
+	 * Advance the tween
+	 * @param nanos The time that has passed since the previous update (nanoseconds)
+	 */
+	public void update(final long nanos)
+	{
+		//nothing to do if not started or we already finished
+		if (!isStarted() || isFinished())
+			return;
+
+		//don't go past the end
+		this.elapsed = Math.min(this.elapsed + nanos, this.duration);
+	}
+
+	/**
+	 * Has the tween been started?
+	 * @return true if started, false otherwise
+	 */
+	public boolean isStarted()
+	{
+		return this.started;
+	}
+
+	/**
+	 * Has the tween finished?
+	 * @return true if started and the duration has passed, false otherwise
+	 */
+	public boolean isFinished()
+	{
+		return (isStarted() && this.elapsed >= this.duration);
+	}
+
+	/**
+	 * Get the progress
+	 * @return How far through the tween we are ranging from 0.0 (start) - 1.0 (finished)
+	 */
+	public float getProgress()
+	{
+		if (this.duration <= 0)
+			return 1.0f;
+
+		return Math.min(1.0f, (float)this.elapsed / this.duration);
+	}
+
+	/**
+	 * Get the value
+	 * @return The current value between the start and end value
+	 */
+	public float getValue()
+	{
+		//make sure we land exactly on the end value
+		if (this.elapsed >= this.duration)
+			return this.to;
+
+		return this.from + ((this.to - this.from) * this.easing.apply(getProgress()));
+	}
+}